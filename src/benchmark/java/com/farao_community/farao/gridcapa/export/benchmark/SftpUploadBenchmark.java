@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.benchmark;
+
+import com.farao_community.farao.gridcapa.export.adapter.SftpClientAdapter;
+import com.farao_community.farao.gridcapa.export.adapter.SftpChannelPool;
+import com.farao_community.farao.gridcapa.export.config.SpoolConfiguration;
+import com.farao_community.farao.gridcapa.export.config_properties.CircuitBreakerProperties;
+import com.farao_community.farao.gridcapa.export.config_properties.ConnectionPoolProperties;
+import com.farao_community.farao.gridcapa.export.config_properties.SftpConfigurationProperties;
+import com.farao_community.farao.gridcapa.export.config_properties.ThrottleProperties;
+import com.farao_community.farao.gridcapa.export.exception.ClientAdapterException;
+import com.farao_community.farao.gridcapa.export.load.InProcessServers;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.sshd.server.SshServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SftpClientAdapter.upload of a synthetic archive, as is or unzipped, to an in-process SSH server
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SftpUploadBenchmark {
+
+    @Param({"1", "100", "1024"})
+    public int sizeInMegabytes;
+
+    @Param({"1", "1000"})
+    public int entries;
+
+    @Param({"false", "true"})
+    public boolean unzip;
+
+    private Path workDirectory;
+    private Path archive;
+    private long archiveSize;
+    private SshServer sshServer;
+    private SftpChannelPool sftpChannelPool;
+    private SftpClientAdapter sftpClientAdapter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDirectory = Files.createTempDirectory("gridcapa-export-sftp-benchmark");
+        Path sftpRoot = Files.createDirectories(workDirectory.resolve("sftp"));
+        Files.createDirectories(sftpRoot.resolve("outputs"));
+        archive = SyntheticArchives.create(workDirectory, sizeInMegabytes, entries);
+        archiveSize = Files.size(archive);
+        int port = InProcessServers.freePort();
+        sshServer = InProcessServers.startSftpServer(sftpRoot, port);
+        SftpConfigurationProperties sftpConfigurationProperties = new SftpConfigurationProperties("localhost", port, InProcessServers.USER, InProcessServers.PASSWORD, "outputs",
+                new ConnectionPoolProperties(4, Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(30), Duration.ofSeconds(30)), 4, 1, 0, 4, ThrottleProperties.unlimited(), CircuitBreakerProperties.defaults(), 60, Duration.ofSeconds(30));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        sftpChannelPool = new SftpChannelPool(sftpConfigurationProperties, meterRegistry);
+        sftpClientAdapter = new SftpClientAdapter(sftpConfigurationProperties, sftpChannelPool,
+                new SpoolConfiguration(DataSize.ofMegabytes(16), workDirectory), new ExportMetrics(meterRegistry), 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        sftpClientAdapter.close();
+        sftpChannelPool.close();
+        sshServer.stop(true);
+        InProcessServers.deleteRecursively(workDirectory);
+    }
+
+    @Benchmark
+    public void upload(TransferCounters transferCounters) throws IOException, ClientAdapterException {
+        try (InputStream inputStream = Files.newInputStream(archive)) {
+            sftpClientAdapter.upload(archive.getFileName().toString(), unzip, inputStream);
+        }
+        transferCounters.transferred(archiveSize);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Zip archives of random, hence incompressible, content, so that their size on the wire is the requested one
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public final class SyntheticArchives {
+
+    public static final long MEGABYTE = 1024L * 1024L;
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private SyntheticArchives() {
+        throw new AssertionError("Utility class should not be constructed");
+    }
+
+    /**
+     * @return an archive of sizeInMegabytes megabytes of content spread over the given number of entries
+     */
+    public static Path create(Path directory, int sizeInMegabytes, int entries) throws IOException {
+        Path archive = directory.resolve("synthetic-" + sizeInMegabytes + "MB-" + entries + ".zip");
+        long totalSize = sizeInMegabytes * MEGABYTE;
+        SplittableRandom random = new SplittableRandom(sizeInMegabytes * 31L + entries);
+        byte[] chunk = new byte[CHUNK_SIZE];
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zipOutputStream.setLevel(Deflater.NO_COMPRESSION);
+            for (int entry = 0; entry < entries; entry++) {
+                long entrySize = totalSize / entries + (entry < totalSize % entries ? 1 : 0);
+                zipOutputStream.putNextEntry(new ZipEntry("entry-" + entry + ".bin"));
+                writeRandomBytes(zipOutputStream, entrySize, random, chunk);
+                zipOutputStream.closeEntry();
+            }
+        }
+        return archive;
+    }
+
+    private static void writeRandomBytes(OutputStream outputStream, long size, SplittableRandom random, byte[] chunk) throws IOException {
+        long remaining = size;
+        while (remaining > 0) {
+            random.nextBytes(chunk);
+            int length = (int) Math.min(chunk.length, remaining);
+            outputStream.write(chunk, 0, length);
+            remaining -= length;
+        }
+    }
+}
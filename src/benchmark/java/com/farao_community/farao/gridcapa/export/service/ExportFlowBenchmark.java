@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.service;
+
+import com.farao_community.farao.gridcapa.export.GridcapaExportApplication;
+import com.farao_community.farao.gridcapa.export.benchmark.SyntheticArchives;
+import com.farao_community.farao.gridcapa.export.benchmark.TransferCounters;
+import com.farao_community.farao.gridcapa.export.load.InProcessServers;
+import com.farao_community.farao.gridcapa.task_manager.api.ProcessFileDto;
+import com.farao_community.farao.gridcapa.task_manager.api.ProcessFileStatus;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.ftpserver.FtpServer;
+import org.apache.ftpserver.ftplet.FtpException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Whole exportOutputsForTask flow of the application context, for a task with one output file and its logs: files are
+ * downloaded from a local task-manager HTTP stub and uploaded to an in-process FTP server. Every operation exports a
+ * new timestamp, so that none of them is taken for a redelivery.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExportFlowBenchmark {
+
+    private static final String OUTPUT_FILE_TYPE = "CGM";
+    private static final String LOGS_FILE_TYPE = "LOGS";
+    private static final OffsetDateTime FIRST_TIMESTAMP = OffsetDateTime.parse("2026-01-01T00:00Z");
+
+    @Param({"1", "100", "1024"})
+    public int sizeInMegabytes;
+
+    @Param({"1", "1000"})
+    public int entries;
+
+    @Param({"false", "true"})
+    public boolean unzip;
+
+    private final AtomicLong exportedTimestamps = new AtomicLong();
+    private Path workDirectory;
+    private Path archive;
+    private long archiveSize;
+    private byte[] logs;
+    private HttpServer taskManager;
+    private ExecutorService taskManagerExecutor;
+    private FtpServer ftpServer;
+    private ConfigurableApplicationContext applicationContext;
+    private GridcapaExportService gridcapaExportService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, FtpException {
+        workDirectory = Files.createTempDirectory("gridcapa-export-flow-benchmark");
+        Path ftpRoot = Files.createDirectories(workDirectory.resolve("ftp"));
+        Files.createDirectories(ftpRoot.resolve("outputs"));
+        archive = SyntheticArchives.create(workDirectory, sizeInMegabytes, entries);
+        archiveSize = Files.size(archive);
+        logs = Files.readAllBytes(SyntheticArchives.create(workDirectory, 0, 1));
+        startTaskManager();
+        int ftpPort = InProcessServers.freePort();
+        ftpServer = InProcessServers.startFtpServer(ftpRoot, ftpPort);
+        applicationContext = new SpringApplicationBuilder(GridcapaExportApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--task-manager.base-url=http://localhost:" + taskManager.getAddress().getPort(),
+                        "--spring.cloud.stream.bindings.consumeTaskDtoUpdate-in-0.consumer.auto-startup=false",
+                        "--ftp.active=true",
+                        "--ftp.port=" + ftpPort,
+                        "--ftp.access-key=" + InProcessServers.USER,
+                        "--ftp.secret-key=" + InProcessServers.PASSWORD,
+                        "--ftp.remote-relative-destination-directory=outputs",
+                        "--ftp.retry-count=1",
+                        "--sftp.active=false",
+                        "--export.seperate-output-files=true",
+                        "--export.unzip-files=" + (unzip ? OUTPUT_FILE_TYPE : ""),
+                        "--export.dedup.enabled=false",
+                        "--export.spool.directory=" + workDirectory);
+        gridcapaExportService = applicationContext.getBean(GridcapaExportService.class);
+        export();
+        Path exported = ftpRoot.resolve("outputs").resolve(unzip ? OUTPUT_FILE_TYPE : OUTPUT_FILE_TYPE + ".zip");
+        if (!Files.exists(exported)) {
+            throw new IllegalStateException("Export flow is not working, " + exported + " was not uploaded");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        applicationContext.close();
+        ftpServer.stop();
+        taskManager.stop(0);
+        taskManagerExecutor.shutdownNow();
+        InProcessServers.deleteRecursively(workDirectory);
+    }
+
+    @Benchmark
+    public void exportOutputsForTask(TransferCounters transferCounters) {
+        export();
+        transferCounters.transferred(archiveSize + logs.length);
+    }
+
+    private void export() {
+        OffsetDateTime timestamp = FIRST_TIMESTAMP.plusMinutes(exportedTimestamps.getAndIncrement());
+        List<ProcessFileDto> outputs = List.of(new ProcessFileDto("outputs/" + OUTPUT_FILE_TYPE + ".zip", OUTPUT_FILE_TYPE, ProcessFileStatus.VALIDATED, OUTPUT_FILE_TYPE + ".zip", "", timestamp));
+        TaskDto taskDto = new TaskDto(UUID.randomUUID(), timestamp, TaskStatus.SUCCESS, new ArrayList<>(), new ArrayList<>(), outputs, new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        gridcapaExportService.exportOutputsForTask(taskDto).block();
+    }
+
+    private void startTaskManager() throws IOException {
+        taskManager = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        taskManagerExecutor = Executors.newFixedThreadPool(8);
+        taskManager.setExecutor(taskManagerExecutor);
+        taskManager.createContext("/tasks/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.endsWith("/file/" + OUTPUT_FILE_TYPE)) {
+                respond(exchange, OUTPUT_FILE_TYPE + ".zip", archiveSize, body -> Files.copy(archive, body));
+            } else if (path.endsWith("/file/" + LOGS_FILE_TYPE)) {
+                respond(exchange, LOGS_FILE_TYPE + ".zip", logs.length, body -> body.write(logs));
+            } else {
+                byte[] notFound = ("No file at " + path).getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(404, notFound.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(notFound);
+                }
+            }
+            exchange.close();
+        });
+        taskManager.start();
+    }
+
+    private static void respond(HttpExchange exchange, String fileName, long length, BodyWriter bodyWriter) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+        exchange.getResponseHeaders().add("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+        exchange.sendResponseHeaders(200, length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            bodyWriter.write(body);
+        }
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        void write(OutputStream body) throws IOException;
+    }
+}
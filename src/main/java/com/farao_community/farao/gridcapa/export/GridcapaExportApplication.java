@@ -6,12 +6,20 @@
  */
 package com.farao_community.farao.gridcapa.export;
 
+import com.farao_community.farao.gridcapa.export.config.DedupConfiguration;
+import com.farao_community.farao.gridcapa.export.config.FanOutConfiguration;
+import com.farao_community.farao.gridcapa.export.config.JournalConfiguration;
+import com.farao_community.farao.gridcapa.export.config.PriorityConfiguration;
+import com.farao_community.farao.gridcapa.export.config.SpoolConfiguration;
 import com.farao_community.farao.gridcapa.export.config.UnzipExportFileConfiguration;
+import com.farao_community.farao.gridcapa.export.config_properties.FileSystemConfigurationProperties;
 import com.farao_community.farao.gridcapa.export.config_properties.FtpConfigurationProperties;
 import com.farao_community.farao.gridcapa.export.config_properties.SftpConfigurationProperties;
+import com.farao_community.farao.gridcapa.export.config_properties.TaskManagerHttpProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * @author Mohamed Benrejeb {@literal <mohamed.ben-rejeb at rte-france.com>}
@@ -19,7 +27,8 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
  */
 @SuppressWarnings("hideutilityclassconstructor")
 @SpringBootApplication
-@EnableConfigurationProperties({FtpConfigurationProperties.class, SftpConfigurationProperties.class, UnzipExportFileConfiguration.class})
+@EnableScheduling
+@EnableConfigurationProperties({FtpConfigurationProperties.class, SftpConfigurationProperties.class, UnzipExportFileConfiguration.class, SpoolConfiguration.class, DedupConfiguration.class, TaskManagerHttpProperties.class, FanOutConfiguration.class, FileSystemConfigurationProperties.class, JournalConfiguration.class, PriorityConfiguration.class})
 public class GridcapaExportApplication {
     public static void main(String[] args) {
         SpringApplication.run(GridcapaExportApplication.class, args);
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.config_properties.CircuitBreakerProperties;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker of one destination, fed with the outcome of each attempt to get a connection to it. After
+ * failureThreshold consecutive failures it opens, and upload attempts wait without touching the network. Once
+ * openDuration elapsed it is half-open: a single attempt probes the destination, closing the circuit when it gets
+ * a connection and opening it again otherwise. A probe that never reports is replaced by another one after openDuration.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+final class CircuitBreaker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final ExportMetrics exportMetrics;
+    private final String adapter;
+    private final String destination;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private long probeStartedAtNanos;
+
+    CircuitBreaker(CircuitBreakerProperties circuitBreakerProperties, ExportMetrics exportMetrics, String adapter, String destination) {
+        CircuitBreakerProperties properties = circuitBreakerProperties != null ? circuitBreakerProperties : CircuitBreakerProperties.defaults();
+        this.failureThreshold = properties.failureThreshold();
+        this.openDurationNanos = properties.openDuration().toNanos();
+        this.exportMetrics = exportMetrics;
+        this.adapter = adapter;
+        this.destination = destination;
+    }
+
+    /**
+     * @return how long an attempt has to wait before it may be let through, zero when it may be made right away
+     */
+    synchronized Duration untilAttemptAllowed() {
+        long elapsedNanos = switch (state) {
+            case CLOSED -> openDurationNanos;
+            case OPEN -> System.nanoTime() - openedAtNanos;
+            case HALF_OPEN -> System.nanoTime() - probeStartedAtNanos;
+        };
+        return Duration.ofNanos(Math.max(0, openDurationNanos - elapsedNanos));
+    }
+
+    /**
+     * @return true when an attempt may be made, in which case its outcome must be reported
+     */
+    synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> {
+                if (now - openedAtNanos < openDurationNanos) {
+                    yield false;
+                }
+                transitionTo(State.HALF_OPEN);
+                probeStartedAtNanos = now;
+                yield true;
+            }
+            case HALF_OPEN -> {
+                if (now - probeStartedAtNanos < openDurationNanos) {
+                    yield false;
+                }
+                probeStartedAtNanos = now;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || state == State.CLOSED && failureThreshold > 0 && consecutiveFailures >= failureThreshold) {
+            openedAtNanos = System.nanoTime();
+            transitionTo(State.OPEN);
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private void transitionTo(State newState) {
+        if (newState == State.OPEN) {
+            LOGGER.warn("Circuit of {} opened after {} consecutive connection failures", destination, consecutiveFailures);
+        } else {
+            LOGGER.info("Circuit of {} {}", destination, newState == State.CLOSED ? "closed" : "half-open, probing destination");
+        }
+        state = newState;
+        exportMetrics.recordCircuitTransition(adapter, destination, newState.name().toLowerCase());
+    }
+}
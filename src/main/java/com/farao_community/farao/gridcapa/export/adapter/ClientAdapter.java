@@ -7,8 +7,12 @@
 package com.farao_community.farao.gridcapa.export.adapter;
 
 import com.farao_community.farao.gridcapa.export.exception.ClientAdapterException;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Oualid Aloui {@literal <oualid.aloui at rte-france.com>}
@@ -18,4 +22,56 @@ public interface ClientAdapter {
 
     void upload(String fileName, boolean unzip, InputStream inputStream) throws ClientAdapterException;
 
+    /**
+     * Uploads a stream without holding the caller through retries: the stream is read during subscription, on the
+     * subscribing thread, while retries, if any, are made after the subscription returned. Defaults to the synchronous upload.
+     */
+    default Mono<Void> uploadDeferred(String fileName, boolean unzip, InputStream inputStream) {
+        return Mono.defer(() -> {
+            try {
+                upload(fileName, unzip, inputStream);
+                return Mono.empty();
+            } catch (ClientAdapterException e) {
+                return Mono.error(e);
+            }
+        });
+    }
+
+    /**
+     * Uploads content the caller already spooled, which stays owned by the caller and must stay open until the upload
+     * is over. Adapters replaying content on retry read it from this spool instead of spooling it again.
+     */
+    default Mono<Void> uploadSpooled(String fileName, boolean unzip, SpooledUploadSource uploadSource) {
+        return Mono.defer(() -> {
+            final CompletableFuture<Void> upload;
+            try (InputStream inputStream = uploadSource.open()) {
+                upload = uploadDeferred(fileName, unzip, inputStream).toFuture();
+            } catch (IOException e) {
+                return Mono.error(new ClientAdapterException(e));
+            }
+            return Mono.fromFuture(upload);
+        });
+    }
+
+    /**
+     * Releases what the adapter holds for its uploads, threads in particular, once it is no longer used
+     */
+    default void close() {
+    }
+
+    /**
+     * @return a description of where files are uploaded, without any secret
+     */
+    default String getDestination() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * @return the adapter uploading to each destination, by name: this one under its own description, unless it
+     * delivers files to several destinations
+     */
+    default Map<String, ClientAdapter> getDestinations() {
+        return Map.of(getDestination(), this);
+    }
+
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Uploads the file entries of an archive spooled on disk with several workers. Each worker holds one connection,
+ * given by the store factory, and takes entries from a shared queue until it is empty, reading them from the archive
+ * with random access. A worker failing leaves its remaining entries to the others, and makes the whole upload fail.
+ * Workers run on the unzip scheduler of the adapter, so that they never wait behind callers blocked on the shared
+ * schedulers.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+final class ConcurrentZipEntryUpload {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentZipEntryUpload.class);
+
+    private ConcurrentZipEntryUpload() {
+        // utility class
+    }
+
+    /**
+     * Destination of the entries, bound to a single connection which is released on close
+     */
+    interface EntryStore extends Closeable {
+        boolean store(String entryName, InputStream inputStream) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface EntryStoreFactory {
+        EntryStore open() throws Exception; // NOSONAR pools only declare Exception
+    }
+
+    /**
+     * @return true when every entry of the archive was stored successfully
+     */
+    static boolean upload(Path archive, int workers, Scheduler workerScheduler, EntryStoreFactory entryStoreFactory) throws IOException {
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            Queue<ZipEntry> entries = new ConcurrentLinkedQueue<>(zipFile.stream().filter(Predicate.not(ZipEntry::isDirectory)).toList());
+            int entryCount = entries.size();
+            int workerCount = Math.max(1, Math.min(workers, entryCount));
+            LOGGER.info("Uploading {} entries of archive with {} connections", entryCount, workerCount);
+            Boolean successFlag = Flux.range(0, workerCount)
+                    .flatMap(worker -> Mono.fromCallable(() -> storeEntries(zipFile, entries, entryStoreFactory))
+                            .subscribeOn(workerScheduler)
+                            .onErrorResume(e -> {
+                                LOGGER.error("Fail during upload of archive entries", e);
+                                return Mono.just(false);
+                            }), workerCount)
+                    .reduce(true, Boolean::logicalAnd)
+                    .block();
+            return Boolean.TRUE.equals(successFlag);
+        }
+    }
+
+    private static boolean storeEntries(ZipFile zipFile, Queue<ZipEntry> entries, EntryStoreFactory entryStoreFactory) throws Exception { // NOSONAR
+        boolean successFlag = true;
+        try (EntryStore entryStore = entryStoreFactory.open()) {
+            ZipEntry zipEntry = entries.poll();
+            while (zipEntry != null) {
+                try (InputStream entryInputStream = zipFile.getInputStream(zipEntry)) {
+                    successFlag = entryStore.store(zipEntry.getName(), entryInputStream) && successFlag;
+                }
+                zipEntry = entries.poll();
+            }
+        }
+        return successFlag;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pipe between the reader of a downloaded file and one destination of a fan-out. Chunks are shared between branches,
+ * never modified once written. Writing never waits for the destination: chunks are held in memory up to the buffer
+ * capacity, then appended to a spool file of the branch until the destination caught up, so that a slow destination
+ * never holds the others back. Writing is a no-op once the destination closed its stream.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+final class FanOutBranch {
+
+    private final int capacityInChunks;
+    private final Path spoolDirectory;
+    private final Deque<byte[]> chunks = new ArrayDeque<>();
+    private FileChannel overflow;
+    private Path overflowFile;
+    private long overflowWritten;
+    private long overflowRead;
+    private boolean ended;
+    private boolean closed;
+    private IOException failure;
+
+    FanOutBranch(int capacityInChunks, Path spoolDirectory) {
+        this.capacityInChunks = Math.max(1, capacityInChunks);
+        this.spoolDirectory = spoolDirectory;
+    }
+
+    /**
+     * Chunks go to memory only while nothing is left to read from the spool file, which keeps them in order
+     */
+    synchronized void write(byte[] chunk) {
+        if (closed || ended) {
+            return;
+        }
+        if (overflowRead == overflowWritten && chunks.size() < capacityInChunks) {
+            chunks.addLast(chunk);
+        } else {
+            try {
+                spill(chunk);
+            } catch (IOException e) {
+                // the destination misses part of the file, only this branch fails
+                end(new IOException("Could not spool content for a slow destination", e));
+                return;
+            }
+        }
+        notifyAll();
+    }
+
+    synchronized void complete() {
+        end(null);
+    }
+
+    synchronized void fail(IOException sourceFailure) {
+        end(new IOException("Download of the file failed", sourceFailure));
+    }
+
+    InputStream inputStream() {
+        return new BranchInputStream();
+    }
+
+    private void end(IOException endFailure) {
+        if (ended) {
+            return;
+        }
+        ended = true;
+        failure = endFailure;
+        notifyAll();
+    }
+
+    private void spill(byte[] chunk) throws IOException {
+        if (overflow == null) {
+            Files.createDirectories(spoolDirectory);
+            overflowFile = Files.createTempFile(spoolDirectory, "gridcapa-export-fan-out-", ".spool");
+            overflow = FileChannel.open(overflowFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        if (overflowRead == overflowWritten) {
+            // everything spooled was read, the file is reused from its start
+            overflowRead = 0;
+            overflowWritten = 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        while (buffer.hasRemaining()) {
+            overflowWritten += overflow.write(buffer, overflowWritten);
+        }
+    }
+
+    private synchronized void release() {
+        closed = true;
+        chunks.clear();
+        if (overflow != null) {
+            try {
+                overflow.close();
+                Files.deleteIfExists(overflowFile);
+            } catch (IOException e) {
+                // a temporary file left behind, nothing the upload depends on
+            }
+            overflow = null;
+        }
+    }
+
+    private final class BranchInputStream extends InputStream {
+
+        private byte[] chunk;
+        private int position;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (chunk == null || position == chunk.length) {
+                chunk = null;
+                int spooled = next(bytes, offset, length);
+                if (chunk == null) {
+                    return spooled;
+                }
+                position = 0;
+            }
+            int read = Math.min(length, chunk.length - position);
+            System.arraycopy(chunk, position, bytes, offset, read);
+            position += read;
+            return read;
+        }
+
+        /**
+         * Takes the next chunk held in memory, or else reads from the spool file straight into bytes
+         *
+         * @return bytes read from the spool file, -1 at the end of the content
+         */
+        private int next(byte[] bytes, int offset, int length) throws IOException {
+            synchronized (FanOutBranch.this) {
+                while (true) {
+                    if (closed) {
+                        throw new IOException("Stream closed");
+                    }
+                    if (!chunks.isEmpty()) {
+                        chunk = chunks.removeFirst();
+                        return 0;
+                    }
+                    if (overflowRead < overflowWritten) {
+                        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, (int) Math.min(length, overflowWritten - overflowRead));
+                        int read = overflow.read(buffer, overflowRead);
+                        overflowRead += read;
+                        return read;
+                    }
+                    if (ended) {
+                        if (failure != null) {
+                            throw failure;
+                        }
+                        return -1;
+                    }
+                    awaitContent();
+                }
+            }
+        }
+
+        private void awaitContent() throws InterruptedIOException {
+            try {
+                FanOutBranch.this.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for downloaded content");
+            }
+        }
+
+        @Override
+        public int available() {
+            return chunk == null ? 0 : chunk.length - position;
+        }
+
+        @Override
+        public void close() {
+            // the next writes are ignored
+            release();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.config.SpoolConfiguration;
+import com.farao_community.farao.gridcapa.export.exception.ClientAdapterException;
+import com.farao_community.farao.gridcapa.export.exception.DestinationsUploadException;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Delivers each file to several named destinations from a single read of its stream. The calling thread reads the
+ * stream and tees it to one branch per destination, each destination uploading from its branch in parallel with its
+ * own adapter, hence with its own retries. A branch whose destination lags behind spools what does not fit in its
+ * buffer instead of holding the stream. A failing destination does not prevent the others from receiving the file,
+ * the upload then fails listing the destinations which did not get it. Destinations upload on the branch scheduler of
+ * the adapter, the calling thread only waiting for all of them to have read the file, not for their retries.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public class FanOutClientAdapter implements ClientAdapter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FanOutClientAdapter.class);
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final Map<String, ClientAdapter> destinations;
+    private final int bufferCapacityInChunks;
+    private final Path spoolDirectory;
+    private final ExportMetrics exportMetrics;
+    private final Scheduler branchScheduler;
+
+    /**
+     * @param destinations adapter of each destination, by name
+     * @param bufferSize bytes buffered in memory for each destination ahead of its upload, the rest being spooled
+     * @param concurrentUploads files uploaded at the same time at most, each of them by one branch per destination
+     */
+    public FanOutClientAdapter(Map<String, ClientAdapter> destinations, long bufferSize, int concurrentUploads, SpoolConfiguration spoolConfiguration,
+                               ExportMetrics exportMetrics) {
+        this.destinations = destinations;
+        this.bufferCapacityInChunks = (int) Math.max(1, bufferSize / CHUNK_SIZE);
+        this.spoolDirectory = spoolConfiguration.spoolDirectory();
+        this.exportMetrics = exportMetrics;
+        this.branchScheduler = Schedulers.newBoundedElastic(Math.max(1, destinations.size()) * Math.max(1, concurrentUploads),
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "gridcapa-export-fan-out");
+    }
+
+    /**
+     * Closes the adapter of every destination
+     */
+    @Override
+    @PreDestroy
+    public void close() {
+        branchScheduler.dispose();
+        destinations.values().forEach(ClientAdapter::close);
+    }
+
+    @Override
+    public String getDestination() {
+        return "fan-out" + destinations.keySet();
+    }
+
+    @Override
+    public Map<String, ClientAdapter> getDestinations() {
+        return Collections.unmodifiableMap(destinations);
+    }
+
+    @Override
+    public void upload(String fileName, boolean unzip, InputStream inputStream) throws ClientAdapterException {
+        UploadRetries.await(uploadDeferred(fileName, unzip, inputStream));
+    }
+
+    /**
+     * The stream is teed during subscription, each destination reading its branch before its retries, if any
+     */
+    @Override
+    public Mono<Void> uploadDeferred(String fileName, boolean unzip, InputStream inputStream) {
+        return Mono.defer(() -> {
+            List<FanOutBranch> branches = new ArrayList<>();
+            List<Mono<String>> failedDestinations = new ArrayList<>();
+            destinations.forEach((name, clientAdapter) -> {
+                FanOutBranch branch = new FanOutBranch(bufferCapacityInChunks, spoolDirectory);
+                branches.add(branch);
+                failedDestinations.add(Mono.fromCallable(() -> uploadToDestination(name, clientAdapter, fileName, unzip, branch))
+                        .subscribeOn(branchScheduler)
+                        .flatMap(Mono::fromFuture)
+                        .filter(Boolean.FALSE::equals)
+                        .map(uploaded -> name));
+            });
+            CompletableFuture<List<String>> uploads = Flux.merge(failedDestinations).collectList().toFuture();
+            tee(inputStream, branches);
+            return Mono.fromFuture(uploads).flatMap(failures -> failures.isEmpty()
+                    ? Mono.<Void>empty()
+                    : Mono.error(new DestinationsUploadException(fileName, failures)));
+        });
+    }
+
+    /**
+     * @return completes once the destination is done with the file, its branch being read when this returns
+     */
+    private CompletableFuture<Boolean> uploadToDestination(String name, ClientAdapter clientAdapter, String fileName, boolean unzip, FanOutBranch branch) {
+        try (InputStream branchInputStream = branch.inputStream()) {
+            return clientAdapter.uploadDeferred(fileName, unzip, branchInputStream)
+                    .thenReturn(true)
+                    .onErrorResume(e -> {
+                        LOGGER.error("File {} could not be delivered to destination {}: {}", fileName, name, e.getMessage());
+                        return Mono.just(false);
+                    })
+                    .doOnNext(uploaded -> {
+                        if (uploaded) {
+                            LOGGER.info("File {} delivered to destination {}", fileName, name);
+                        }
+                        exportMetrics.recordDestinationUpload(name, uploaded);
+                    })
+                    .toFuture();
+        } catch (IOException e) {
+            LOGGER.error("File {} could not be delivered to destination {}: {}", fileName, name, e.getMessage());
+            exportMetrics.recordDestinationUpload(name, false);
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    /**
+     * Reads the stream once, handing every chunk to all the branches, then ends them with the end or failure of the stream
+     */
+    private static void tee(InputStream inputStream, List<FanOutBranch> branches) {
+        try {
+            byte[] chunk = inputStream.readNBytes(CHUNK_SIZE);
+            while (chunk.length > 0) {
+                for (FanOutBranch branch : branches) {
+                    branch.write(chunk);
+                }
+                chunk = inputStream.readNBytes(CHUNK_SIZE);
+            }
+        } catch (IOException e) {
+            for (FanOutBranch branch : branches) {
+                branch.fail(e);
+            }
+            return;
+        }
+        for (FanOutBranch branch : branches) {
+            branch.complete();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.config_properties.FileSystemConfigurationProperties;
+import com.farao_community.farao.gridcapa.export.exception.ClientAdapterException;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+import org.slf4j.Logger;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Writes files straight into a directory mounted in the pod, local or network share. Content is transferred to the
+ * file channel without intermediate copy in user space when the caller already spooled it to disk, and is first written
+ * to a hidden temporary file of the destination directory, then renamed atomically, so that consumers never see a
+ * partial file. Archives to unzip are read from their spool file, or else spooled to the destination file system, their
+ * entries then extracted in parallel, each of them published atomically the same way.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@Component
+@ConditionalOnProperty(prefix = "filesystem", name = "active", havingValue = "true")
+public class FileSystemClientAdapter implements ClientAdapter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemClientAdapter.class);
+    private static final String ADAPTER = "filesystem";
+    private static final String TEMPORARY_SUFFIX = ".part";
+
+    private final FileSystemConfigurationProperties fileSystemConfigurationProperties;
+    private final ExportMetrics exportMetrics;
+    private final Scheduler unzipScheduler;
+
+    /**
+     * @param fileTransferMaxConcurrency files copied at the same time at most, each archive being unzipped by
+     *                                   several workers of the unzip scheduler of the adapter
+     */
+    public FileSystemClientAdapter(FileSystemConfigurationProperties fileSystemConfigurationProperties, ExportMetrics exportMetrics,
+                                   @Value("${export.file-transfer.max-concurrency:4}") int fileTransferMaxConcurrency) {
+        this.fileSystemConfigurationProperties = fileSystemConfigurationProperties;
+        this.exportMetrics = exportMetrics;
+        this.unzipScheduler = Schedulers.newBoundedElastic(Math.max(1, fileSystemConfigurationProperties.getUnzipThreads()) * Math.max(1, fileTransferMaxConcurrency),
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "gridcapa-export-unzip");
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        unzipScheduler.dispose();
+    }
+
+    @Override
+    public String getDestination() {
+        return "file://" + destinationDirectory();
+    }
+
+    @Override
+    public void upload(String fileName, boolean unzip, InputStream inputStream) throws ClientAdapterException {
+        store(fileName, unzip, null, file -> write(inputStream, file));
+    }
+
+    /**
+     * Content spooled to disk is transferred from its spool file, and an archive spooled to disk is unzipped in place
+     */
+    @Override
+    public Mono<Void> uploadSpooled(String fileName, boolean unzip, SpooledUploadSource uploadSource) {
+        return Mono.defer(() -> {
+            final Optional<Path> spoolFile = uploadSource.spooledFile();
+            if (spoolFile.isEmpty()) {
+                return ClientAdapter.super.uploadSpooled(fileName, unzip, uploadSource);
+            }
+            try {
+                store(fileName, unzip, spoolFile.get(), file -> transfer(spoolFile.get(), file));
+                return Mono.empty();
+            } catch (ClientAdapterException e) {
+                return Mono.error(e);
+            }
+        });
+    }
+
+    /**
+     * @param archive the content when it already is a file, unzipped from it in place, null otherwise
+     */
+    private void store(String fileName, boolean unzip, Path archive, ContentWriter content) throws ClientAdapterException {
+        try {
+            Files.createDirectories(destinationDirectory());
+            if (unzip) {
+                LOGGER.info("Attempt to unzip {} to destination directory", fileName);
+                unzipAndStoreFiles(fileName, archive, content);
+            } else {
+                LOGGER.info("Attempt to copy {} file to destination directory", fileName);
+                publish(content, resolveInside(destinationDirectory(), fileName));
+            }
+            LOGGER.info("File {} copied successfully to destination directory", fileName);
+        } catch (IOException e) {
+            exportMetrics.recordUploadFailure(ADAPTER, getDestination());
+            throw new ClientAdapterException(String.format("Copy of file %s to %s failed: %s", fileName, getDestination(), e.getMessage()));
+        }
+    }
+
+    private void unzipAndStoreFiles(String fileName, Path archive, ContentWriter content) throws IOException {
+        final Path directory = resolveInside(destinationDirectory(), fileName.replace(".zip", ""));
+        Files.createDirectories(directory);
+        if (archive != null) {
+            extractEntries(archive, directory);
+            return;
+        }
+        final Path temporaryArchive = temporaryFile(resolveInside(destinationDirectory(), fileName));
+        try {
+            content.writeTo(temporaryArchive);
+            extractEntries(temporaryArchive, directory);
+        } finally {
+            Files.deleteIfExists(temporaryArchive);
+        }
+    }
+
+    private void extractEntries(Path archive, Path directory) throws IOException {
+        boolean successFlag = ConcurrentZipEntryUpload.upload(archive, fileSystemConfigurationProperties.getUnzipThreads(), unzipScheduler, () -> openEntryStore(directory));
+        if (!successFlag) {
+            throw new IOException("some entries of the archive could not be extracted");
+        }
+    }
+
+    private ConcurrentZipEntryUpload.EntryStore openEntryStore(Path directory) {
+        return new ConcurrentZipEntryUpload.EntryStore() {
+            @Override
+            public boolean store(String entryName, InputStream inputStream) {
+                try {
+                    publish(file -> write(inputStream, file), resolveInside(directory, entryName));
+                    exportMetrics.recordUnzipEntry(ADAPTER, getDestination(), true);
+                    return true;
+                } catch (IOException e) {
+                    LOGGER.error("File {} couldn't be copied to destination directory", entryName, e);
+                    exportMetrics.recordUnzipEntry(ADAPTER, getDestination(), false);
+                    return false;
+                }
+            }
+
+            @Override
+            public void close() {
+                // no connection to release
+            }
+        };
+    }
+
+    /**
+     * Writes the content next to its target under a hidden temporary name, flushed to storage, then renames it atomically
+     */
+    private static void publish(ContentWriter content, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        final Path temporary = temporaryFile(target);
+        try {
+            content.writeTo(temporary);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void write(InputStream inputStream, Path file) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ReadableByteChannel source = Channels.newChannel(inputStream);
+            long position = 0;
+            long transferred = fileChannel.transferFrom(source, position, Long.MAX_VALUE);
+            while (transferred > 0) {
+                position += transferred;
+                transferred = fileChannel.transferFrom(source, position, Long.MAX_VALUE);
+            }
+            fileChannel.force(false);
+        }
+    }
+
+    /**
+     * Copies from file channel to file channel, which the kernel does without going through user space
+     */
+    private static void transfer(Path sourceFile, Path file) throws IOException {
+        try (FileChannel source = FileChannel.open(sourceFile, StandardOpenOption.READ);
+             FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long position = 0;
+            long size = source.size();
+            while (position < size) {
+                position += source.transferTo(position, size - position, fileChannel);
+            }
+            fileChannel.force(false);
+        }
+    }
+
+    /**
+     * Hidden and unique, so that consumers can ignore it, created with default permissions unlike Files.createTempFile
+     */
+    private static Path temporaryFile(Path target) {
+        return target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + TEMPORARY_SUFFIX);
+    }
+
+    /**
+     * Guards against names, archive entries in particular, that would escape their directory
+     */
+    private static Path resolveInside(Path directory, String name) throws IOException {
+        final Path resolved = directory.resolve(name).normalize();
+        if (!resolved.startsWith(directory) || resolved.equals(directory)) {
+            throw new IOException("Invalid file name " + name);
+        }
+        return resolved;
+    }
+
+    private Path destinationDirectory() {
+        return Path.of(fileSystemConfigurationProperties.getDestinationDirectory()).toAbsolutePath().normalize();
+    }
+
+    @FunctionalInterface
+    private interface ContentWriter {
+        void writeTo(Path file) throws IOException;
+    }
+}
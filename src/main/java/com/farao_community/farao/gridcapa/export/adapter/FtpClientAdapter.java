@@ -6,21 +6,28 @@
  */
 package com.farao_community.farao.gridcapa.export.adapter;
 
+import com.farao_community.farao.gridcapa.export.config.SpoolConfiguration;
 import com.farao_community.farao.gridcapa.export.config_properties.FtpConfigurationProperties;
 import com.farao_community.farao.gridcapa.export.exception.ClientAdapterException;
-import org.apache.commons.net.ftp.FTP;
+import com.farao_community.farao.gridcapa.export.exception.PoolExhaustedException;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
 import org.apache.commons.net.ftp.FTPClient;
-import org.apache.commons.net.ftp.FTPReply;
+import org.apache.commons.net.ftp.FTPFile;
 import org.slf4j.Logger;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.concurrent.TimeUnit;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 
 /**
  * @author Mohamed BenRejeb {@literal <mohamed.ben-rejeb at rte-france.com>}
@@ -31,87 +38,246 @@ import java.util.zip.ZipInputStream;
 @ConditionalOnProperty(prefix = "ftp", name = "active", havingValue = "true")
 public class FtpClientAdapter implements ClientAdapter {
     private static final Logger LOGGER = LoggerFactory.getLogger(FtpClientAdapter.class);
+    private static final String ADAPTER = "ftp";
 
     private final FtpConfigurationProperties ftpConfigurationProperties;
+    private final FtpClientPool ftpClientPool;
+    private final SpoolConfiguration spoolConfiguration;
+    private final ExportMetrics exportMetrics;
+    private final TransferThrottle transferThrottle;
+    private final CircuitBreaker circuitBreaker;
+    private final Scheduler unzipScheduler;
 
-    public FtpClientAdapter(FtpConfigurationProperties ftpConfigurationProperties) {
+    /**
+     * @param fileTransferMaxConcurrency files uploaded at the same time at most, each archive being unzipped by
+     *                                   several workers of the unzip scheduler of the adapter
+     */
+    public FtpClientAdapter(FtpConfigurationProperties ftpConfigurationProperties, FtpClientPool ftpClientPool, SpoolConfiguration spoolConfiguration, ExportMetrics exportMetrics,
+                            @Value("${export.file-transfer.max-concurrency:4}") int fileTransferMaxConcurrency) {
         this.ftpConfigurationProperties = ftpConfigurationProperties;
+        this.ftpClientPool = ftpClientPool;
+        this.spoolConfiguration = spoolConfiguration;
+        this.exportMetrics = exportMetrics;
+        this.transferThrottle = new TransferThrottle(ftpConfigurationProperties.getThrottle(), exportMetrics, ADAPTER, getDestination());
+        this.circuitBreaker = new CircuitBreaker(ftpConfigurationProperties.getCircuitBreaker(), exportMetrics, ADAPTER, getDestination());
+        this.unzipScheduler = Schedulers.newBoundedElastic(Math.max(1, ftpConfigurationProperties.getUnzipConnections()) * Math.max(1, fileTransferMaxConcurrency),
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "gridcapa-export-unzip");
     }
 
+    @Override
+    @PreDestroy
+    public void close() {
+        unzipScheduler.dispose();
+    }
+
+    @Override
+    public String getDestination() {
+        return "ftp://" + FtpDestination.of(ftpConfigurationProperties);
+    }
+
+    CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    @Override
     public void upload(String fileName, boolean unzip, InputStream inputStream) throws ClientAdapterException {
-        int performedRetries = 0;
+        UploadRetries.await(uploadDeferred(fileName, unzip, inputStream));
+    }
+
+    /**
+     * The stream is only spooled as far as a resumed retry needs it
+     */
+    @Override
+    public Mono<Void> uploadDeferred(String fileName, boolean unzip, InputStream inputStream) {
+        return Mono.using(() -> SpooledUploadSource.resumable(inputStream, spoolConfiguration),
+                uploadSource -> uploadSpooled(fileName, unzip, uploadSource),
+                uploadSource -> release(fileName, uploadSource));
+    }
+
+    /**
+     * Makes the first attempt right away, then retries failed attempts after a jittered exponential backoff starting
+     * at retrySleep seconds, capped at retryMaxSleep seconds. While the circuit of the destination is open, attempts
+     * wait for it to let them through instead of failing.
+     */
+    @Override
+    public Mono<Void> uploadSpooled(String fileName, boolean unzip, SpooledUploadSource uploadSource) {
         final int maxRetryCount = ftpConfigurationProperties.getRetryCount();
-        final int retrySleep = ftpConfigurationProperties.getRetrySleep();
-        boolean successfulFtpSend = false;
-        while (performedRetries <= maxRetryCount && !successfulFtpSend) {
-            try {
-                TimeUnit.SECONDS.sleep((long) performedRetries * retrySleep);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
+        final Duration retrySleep = Duration.ofSeconds(ftpConfigurationProperties.getRetrySleep());
+        final Duration retryMaxSleep = Duration.ofSeconds(ftpConfigurationProperties.getRetryMaxSleep());
+        return Mono.defer(() -> {
+            final ResumableUpload resumableUpload = new ResumableUpload(exportMetrics, ADAPTER);
+            return UploadRetries.withBackoff(() -> performSingleUploadAttempt(fileName, unzip, uploadSource, resumableUpload),
+                    maxRetryCount, retrySleep, retryMaxSleep, () -> exportMetrics.recordUploadRetry(ADAPTER, getDestination()), circuitBreaker::untilAttemptAllowed);
+        }).flatMap(successfulFtpSend -> {
+            if (successfulFtpSend) {
+                return Mono.empty();
+            }
+            exportMetrics.recordUploadFailure(ADAPTER, getDestination());
+            return Mono.error(new ClientAdapterException(String.format("Upload of file %s failed after %d retries", fileName, maxRetryCount)));
+        });
+    }
+
+    /**
+     * Each attempt waits for a transfer slot of the destination, is deferred when the circuit of the destination does
+     * not let it through, then reads the upload source again, so that a retry never sends a partially consumed stream.
+     * When a previous attempt already sent part of a plain file, the transfer is resumed with APPE from the remote file size.
+     */
+    private UploadRetries.Outcome performSingleUploadAttempt(String fileName, boolean unzip, SpooledUploadSource uploadSource, ResumableUpload resumableUpload) {
+        UploadRetries.Outcome outcome;
+        try (TransferThrottle.Permit permit = transferThrottle.acquire()) {
+            if (circuitBreaker.tryAcquire()) {
+                outcome = performThrottledUploadAttempt(fileName, unzip, uploadSource, resumableUpload) ? UploadRetries.Outcome.SUCCEEDED : UploadRetries.Outcome.FAILED;
+            } else {
+                LOGGER.warn("Circuit of {} is open, upload attempt of {} deferred", getDestination(), fileName);
+                outcome = UploadRetries.Outcome.REJECTED;
             }
-            performedRetries++;
-            successfulFtpSend = performSingleUploadAttempt(fileName, unzip, inputStream);
+        } catch (InterruptedIOException e) {
+            LOGGER.error("Fail during upload", e);
+            outcome = UploadRetries.Outcome.FAILED;
         }
-        if (!successfulFtpSend) {
-            throw new ClientAdapterException(String.format("Upload of file %s failed after %d retries", fileName, maxRetryCount));
+        if (outcome != UploadRetries.Outcome.SUCCEEDED) {
+            drain(fileName, uploadSource);
         }
+        return outcome;
     }
 
-    private boolean performSingleUploadAttempt(String fileName, boolean unzip, InputStream inputStream) {
-        boolean successFlag;
+    private boolean performThrottledUploadAttempt(String fileName, boolean unzip, SpooledUploadSource uploadSource, ResumableUpload resumableUpload) {
+        final FtpDestination destination = FtpDestination.of(ftpConfigurationProperties);
+        if (unzip) {
+            LOGGER.info("Attempt to unzip {} to FTP server", fileName);
+            return unzipAndStoreFiles(destination, fileName, uploadSource);
+        }
+        final PooledFtpClient ftp;
         try {
-            FTPClient ftp = new FTPClient(); // NOSONAR
-            LOGGER.info("Attempt to connect to FTP server");
-            ftp.connect(ftpConfigurationProperties.getHost(), ftpConfigurationProperties.getPort());
-
-            int reply = ftp.getReplyCode();
-            if (!FTPReply.isPositiveCompletion(reply)) {
-                ftp.disconnect();
-                return false;
-            }
-            ftp.login(ftpConfigurationProperties.getAccessKey(), ftpConfigurationProperties.getSecretKey());
-            LOGGER.info("Connection established");
-
-            // if ftp working dir is /home/farao/upload and you want to upload files under /home/farao/upload/outputs, then the remote relative destination dir should be 'outputs', FTPClient will append it itself
-            ftp.changeWorkingDirectory(ftpConfigurationProperties.getRemoteRelativeDestinationDirectory());
-            ftp.enterLocalPassiveMode();
-            ftp.setFileType(FTP.BINARY_FILE_TYPE);  // required because ASCII is the default file type, otherwise zip will be corrupted
-            if (unzip) {
-                LOGGER.info("Attempt to unzip {} to FTP server", fileName);
-                successFlag = unzipAndStoreFiles(ftp, fileName, inputStream);
-            } else {
-                logAttemptStoreFile(fileName);
-                successFlag = ftp.storeFile(fileName, inputStream);
-                logSuccess(successFlag, fileName);
-            }
-            ftp.disconnect();
-            LOGGER.info("Connection closed");
+            ftp = borrow(destination);
+        } catch (Exception e) {
+            LOGGER.error("Fail to get a connection to FTP server", e);
+            return false;
+        }
+        boolean reusable = false;
+        try {
+            final boolean successFlag = storeFile(ftp, fileName, uploadSource, resumableUpload);
+            reusable = true;
             return successFlag;
         } catch (IOException e) {
             LOGGER.error("Fail during upload", e);
             return false;
+        } finally {
+            ftpClientPool.release(destination, ftp, reusable);
         }
     }
 
-    private boolean unzipAndStoreFiles(FTPClient ftp, String fileName, InputStream inputStream) throws IOException {
-        final String directory = fileName.replace(".zip", "");
-        ftp.makeDirectory(directory);
-        ftp.changeWorkingDirectory(directory);
-        boolean successFlag = true;
-        try (ZipInputStream zipInputStream = new ZipInputStream(inputStream)) {
-            ZipEntry zipEntry = zipInputStream.getNextEntry();
-            while (zipEntry != null) {
-                final String zippedFileName = zipEntry.getName();
-                logAttemptStoreFile(zippedFileName);
-                final boolean oneFileSuccessFlag = ftp.storeFile(zippedFileName, zipInputStream);
-                logSuccess(oneFileSuccessFlag, zippedFileName);
-                successFlag = oneFileSuccessFlag && successFlag;
-                zipEntry = zipInputStream.getNextEntry();
+    private boolean storeFile(FTPClient ftp, String fileName, SpooledUploadSource uploadSource, ResumableUpload resumableUpload) throws IOException {
+        final long offset = resumableUpload.hasTransferredBytes() ? resumableUpload.resumeOffset(remoteFileSize(ftp, fileName)) : 0;
+        final boolean successFlag;
+        try (InputStream inputStream = uploadSource.open(offset)) {
+            if (offset > 0) {
+                LOGGER.info("Attempt to resume copy of {} file to FTP server from byte {}", fileName, offset);
+                successFlag = ftp.appendFile(fileName, transferThrottle.throttle(resumableUpload.track(inputStream, offset)));
+            } else {
+                logAttemptStoreFile(fileName);
+                successFlag = ftp.storeFile(fileName, transferThrottle.throttle(resumableUpload.track(inputStream, 0)));
             }
         }
+        logSuccess(successFlag, fileName);
         return successFlag;
     }
 
+    /**
+     * @return size of the remote file from SIZE command, or from a LIST when the server does not support it, -1 if unknown
+     */
+    private static long remoteFileSize(FTPClient ftp, String fileName) throws IOException {
+        final String size = ftp.getSize(fileName);
+        if (size != null) {
+            try {
+                return Long.parseLong(size.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Unexpected SIZE reply for {}: {}", fileName, size);
+            }
+        }
+        final FTPFile[] remoteFiles = ftp.listFiles(fileName);
+        return remoteFiles != null && remoteFiles.length == 1 ? remoteFiles[0].getSize() : -1;
+    }
+
+    /**
+     * The archive is spooled once to disk, its directory created once, then its entries are uploaded concurrently
+     * over several pooled connections
+     */
+    private boolean unzipAndStoreFiles(FtpDestination destination, String fileName, SpooledUploadSource uploadSource) {
+        final String directory = fileName.replace(".zip", "");
+        try {
+            final Path archive = uploadSource.toFile();
+            makeDirectory(destination, directory);
+            return ConcurrentZipEntryUpload.upload(archive, ftpConfigurationProperties.getUnzipConnections(), unzipScheduler, () -> openEntryStore(destination, directory));
+        } catch (Exception e) {
+            LOGGER.error("Fail during upload", e);
+            return false;
+        }
+    }
+
+    /**
+     * Feeds the circuit breaker with the outcome of getting the connection, a pool exhausted by local uploads
+     * not being a failure of the destination
+     */
+    private PooledFtpClient borrow(FtpDestination destination) throws Exception { // NOSONAR commons-pool only declares Exception
+        try {
+            final PooledFtpClient ftp = ftpClientPool.borrow(destination);
+            circuitBreaker.onSuccess();
+            return ftp;
+        } catch (PoolExhaustedException e) {
+            throw e;
+        } catch (Exception e) {
+            circuitBreaker.onFailure();
+            throw e;
+        }
+    }
+
+    private void makeDirectory(FtpDestination destination, String directory) throws Exception { // NOSONAR commons-pool only declares Exception
+        final PooledFtpClient ftp = borrow(destination);
+        boolean reusable = false;
+        try {
+            ftp.makeDirectory(directory);
+            reusable = true;
+        } finally {
+            ftpClientPool.release(destination, ftp, reusable);
+        }
+    }
+
+    private ConcurrentZipEntryUpload.EntryStore openEntryStore(FtpDestination destination, String directory) throws Exception { // NOSONAR commons-pool only declares Exception
+        final PooledFtpClient ftp = borrow(destination);
+        try {
+            if (!ftp.changeWorkingDirectory(directory)) {
+                throw new IOException("Cannot change to directory " + directory + " on FTP server with reply " + ftp.getReplyString());
+            }
+        } catch (IOException e) {
+            ftpClientPool.release(destination, ftp, false);
+            throw e;
+        }
+        return new ConcurrentZipEntryUpload.EntryStore() {
+            private boolean reusable = true;
+
+            @Override
+            public boolean store(String entryName, InputStream inputStream) throws IOException {
+                logAttemptStoreFile(entryName);
+                try {
+                    final boolean oneFileSuccessFlag = ftp.storeFile(entryName, transferThrottle.throttle(inputStream));
+                    logSuccess(oneFileSuccessFlag, entryName);
+                    exportMetrics.recordUnzipEntry(ADAPTER, getDestination(), oneFileSuccessFlag);
+                    return oneFileSuccessFlag;
+                } catch (IOException e) {
+                    reusable = false;
+                    exportMetrics.recordUnzipEntry(ADAPTER, getDestination(), false);
+                    throw e;
+                }
+            }
+
+            @Override
+            public void close() {
+                ftpClientPool.release(destination, ftp, reusable);
+            }
+        };
+    }
+
     private static void logAttemptStoreFile(String fileName) {
         LOGGER.info("Attempt to copy {} file to FTP server", fileName);
     }
@@ -123,4 +289,23 @@ public class FtpClientAdapter implements ClientAdapter {
             LOGGER.error("File {} couldn't be copied to FTP server", fileName);
         }
     }
+
+    /**
+     * Reads what is left of the source once an attempt failed, so that its stream is handed back before any retry
+     */
+    private static void drain(String fileName, SpooledUploadSource uploadSource) {
+        try {
+            uploadSource.drain();
+        } catch (IOException e) {
+            LOGGER.error("Could not read the rest of file {}", fileName, e);
+        }
+    }
+
+    private static void release(String fileName, SpooledUploadSource uploadSource) {
+        try {
+            uploadSource.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not release spooled content of file {}", fileName, e);
+        }
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.config_properties.ConnectionPoolProperties;
+import com.farao_community.farao.gridcapa.export.config_properties.FtpConfigurationProperties;
+import com.farao_community.farao.gridcapa.export.exception.PoolExhaustedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+
+/**
+ * Pool of logged-in FTP connections, keyed by destination.
+ * Connections are checked with a NOOP when borrowed and while idle, and closed once idle or older than the configured durations.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@Component
+@ConditionalOnProperty(prefix = "ftp", name = "active", havingValue = "true")
+public class FtpClientPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FtpClientPool.class);
+    private static final String METRICS_PREFIX = "gridcapa.export.ftp.pool.";
+
+    private final GenericKeyedObjectPool<FtpDestination, PooledFtpClient> pool;
+
+    public FtpClientPool(FtpConfigurationProperties ftpConfigurationProperties, MeterRegistry meterRegistry) {
+        ConnectionPoolProperties poolProperties = ftpConfigurationProperties.getPool();
+        GenericKeyedObjectPoolConfig<PooledFtpClient> poolConfig = new GenericKeyedObjectPoolConfig<>();
+        poolConfig.setMaxTotalPerKey(poolProperties.maxSize());
+        poolConfig.setMaxIdlePerKey(poolProperties.maxSize());
+        poolConfig.setMaxTotal(-1);
+        poolConfig.setMaxWait(poolProperties.maxWait());
+        poolConfig.setMinEvictableIdleDuration(poolProperties.maxIdleTime());
+        poolConfig.setTimeBetweenEvictionRuns(poolProperties.evictionInterval());
+        poolConfig.setTestOnBorrow(true);
+        poolConfig.setTestWhileIdle(true);
+        poolConfig.setJmxEnabled(false);
+        this.pool = new GenericKeyedObjectPool<>(new FtpClientPooledObjectFactory(poolProperties.maxLifetime(),
+                ftpConfigurationProperties.getConnectTimeout(), ftpConfigurationProperties.getSocketTimeout()), poolConfig);
+        registerMetrics(meterRegistry);
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder(METRICS_PREFIX + "active", pool, GenericKeyedObjectPool::getNumActive).register(meterRegistry);
+        Gauge.builder(METRICS_PREFIX + "idle", pool, GenericKeyedObjectPool::getNumIdle).register(meterRegistry);
+        Gauge.builder(METRICS_PREFIX + "waiters", pool, GenericKeyedObjectPool::getNumWaiters).register(meterRegistry);
+        Gauge.builder(METRICS_PREFIX + "borrow.wait.mean", pool, p -> p.getMeanBorrowWaitDuration().toMillis()).baseUnit("milliseconds").register(meterRegistry);
+        FunctionCounter.builder(METRICS_PREFIX + "created", pool, GenericKeyedObjectPool::getCreatedCount).register(meterRegistry);
+        FunctionCounter.builder(METRICS_PREFIX + "destroyed", pool, GenericKeyedObjectPool::getDestroyedCount).register(meterRegistry);
+        FunctionCounter.builder(METRICS_PREFIX + "borrowed", pool, GenericKeyedObjectPool::getBorrowedCount).register(meterRegistry);
+    }
+
+    /**
+     * @throws PoolExhaustedException when all the connections stay in use for the max wait, any other exception coming
+     *                                from the creation or the activation of a connection
+     */
+    public PooledFtpClient borrow(FtpDestination destination) throws Exception { // NOSONAR commons-pool only declares Exception
+        return borrow(destination, pool.getMaxWaitDuration());
+    }
+
+    /**
+     * @param maxWait time waited at most for a connection in use to be released, instead of the configured max wait
+     */
+    public PooledFtpClient borrow(FtpDestination destination, Duration maxWait) throws Exception { // NOSONAR commons-pool only declares Exception
+        try {
+            return pool.borrowObject(destination, maxWait.toMillis());
+        } catch (NoSuchElementException e) {
+            // commons-pool only gives a cause when the creation or activation of a connection failed
+            if (e.getCause() == null) {
+                throw new PoolExhaustedException("No FTP connection to " + destination + " available: " + e.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Gives the connection back to the pool, or closes it when it may be left in an unknown state
+     */
+    public void release(FtpDestination destination, PooledFtpClient ftp, boolean reusable) {
+        try {
+            if (reusable) {
+                pool.returnObject(destination, ftp);
+            } else {
+                pool.invalidateObject(destination, ftp);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Could not release FTP connection to {}: {}", destination, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.close();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import org.apache.commons.net.ftp.FTP;
+import org.apache.commons.net.ftp.FTPReply;
+import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Creates FTP connections moved to the destination directory. Connecting gives up after connectTimeout, and every
+ * command or data transfer after socketTimeout without an answer, so that a half-open connection fails a NOOP
+ * validation or an upload instead of blocking it.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+class FtpClientPooledObjectFactory extends BaseKeyedPooledObjectFactory<FtpDestination, PooledFtpClient> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FtpClientPooledObjectFactory.class);
+
+    private final Duration maxLifetime;
+    private final int connectTimeoutMillis;
+    private final Duration socketTimeout;
+
+    FtpClientPooledObjectFactory(Duration maxLifetime, Duration connectTimeout, Duration socketTimeout) {
+        this.maxLifetime = maxLifetime;
+        this.connectTimeoutMillis = (int) Math.min(Integer.MAX_VALUE, connectTimeout.toMillis());
+        this.socketTimeout = socketTimeout;
+    }
+
+    @Override
+    public PooledFtpClient create(FtpDestination destination) throws IOException {
+        PooledFtpClient ftp = new PooledFtpClient();
+        ftp.setConnectTimeout(connectTimeoutMillis);
+        ftp.setDefaultTimeout((int) Math.min(Integer.MAX_VALUE, socketTimeout.toMillis()));
+        ftp.setDataTimeout(socketTimeout);
+        LOGGER.info("Attempt to connect to FTP server {}", destination);
+        ftp.connect(destination.host(), destination.port());
+        try {
+            if (!FTPReply.isPositiveCompletion(ftp.getReplyCode())) {
+                throw new IOException("FTP server refused connection with reply " + ftp.getReplyString());
+            }
+            if (!ftp.login(destination.accessKey(), destination.secretKey())) {
+                throw new IOException("FTP login refused with reply " + ftp.getReplyString());
+            }
+            // if ftp working dir is /home/farao/upload and you want to upload files under /home/farao/upload/outputs, then the remote relative destination dir should be 'outputs', FTPClient will append it itself
+            if (!ftp.changeWorkingDirectory(destination.remoteRelativeDestinationDirectory())) {
+                throw new IOException("Cannot change to destination directory on FTP server with reply " + ftp.getReplyString());
+            }
+            ftp.enterLocalPassiveMode();
+            ftp.setFileType(FTP.BINARY_FILE_TYPE);  // required because ASCII is the default file type, otherwise zip will be corrupted
+            ftp.rememberDestinationDirectory();
+        } catch (IOException e) {
+            ftp.disconnect();
+            throw e;
+        }
+        LOGGER.info("Connection established");
+        return ftp;
+    }
+
+    @Override
+    public PooledObject<PooledFtpClient> wrap(PooledFtpClient ftp) {
+        return new DefaultPooledObject<>(ftp);
+    }
+
+    @Override
+    public void activateObject(FtpDestination destination, PooledObject<PooledFtpClient> pooledObject) throws IOException {
+        if (!pooledObject.getObject().resetWorkingDirectory()) {
+            throw new IOException("Cannot go back to destination directory on FTP server " + destination);
+        }
+    }
+
+    /**
+     * A connection is kept as long as it is younger than the max lifetime and answers a NOOP
+     */
+    @Override
+    public boolean validateObject(FtpDestination destination, PooledObject<PooledFtpClient> pooledObject) {
+        if (pooledObject.getCreateInstant().plus(maxLifetime).isBefore(Instant.now())) {
+            return false;
+        }
+        try {
+            return pooledObject.getObject().isConnected() && pooledObject.getObject().sendNoOp();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void destroyObject(FtpDestination destination, PooledObject<PooledFtpClient> pooledObject) {
+        PooledFtpClient ftp = pooledObject.getObject();
+        try {
+            if (ftp.isConnected()) {
+                ftp.logout();
+            }
+        } catch (IOException e) {
+            // connection is dropped anyway
+        } finally {
+            try {
+                ftp.disconnect();
+            } catch (IOException e) {
+                // nothing to do
+            }
+        }
+        LOGGER.info("Connection closed");
+    }
+}
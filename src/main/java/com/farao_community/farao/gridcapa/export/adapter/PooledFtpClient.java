@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import org.apache.commons.net.ftp.FTPClient;
+
+import java.io.IOException;
+
+/**
+ * FTP client kept logged in by the pool, remembering the directory it has to be brought back to before each use
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public class PooledFtpClient extends FTPClient {
+
+    private String destinationDirectory;
+
+    void rememberDestinationDirectory() throws IOException {
+        destinationDirectory = printWorkingDirectory();
+    }
+
+    boolean resetWorkingDirectory() throws IOException {
+        return destinationDirectory == null || changeWorkingDirectory(destinationDirectory);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Keeps track of how far the attempts of one upload went, to restart a failed transfer from what the server already received.
+ * A remote file is only resumed when a previous attempt of this same upload actually sent bytes, so that an older file
+ * with the same name is never appended to.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+final class ResumableUpload {
+
+    private final ExportMetrics exportMetrics;
+    private final String adapter;
+    private long transferredBytes;
+
+    ResumableUpload(ExportMetrics exportMetrics, String adapter) {
+        this.exportMetrics = exportMetrics;
+        this.adapter = adapter;
+    }
+
+    /**
+     * @return true when a previous attempt sent bytes, so that remote size is worth asking for
+     */
+    boolean hasTransferredBytes() {
+        return transferredBytes > 0;
+    }
+
+    /**
+     * @param remoteSize size of the remote file, negative if unknown
+     * @return offset to restart the transfer from, 0 when the whole content has to be sent again
+     */
+    long resumeOffset(long remoteSize) {
+        if (transferredBytes == 0) {
+            return 0;
+        }
+        long offset = remoteSize > 0 && remoteSize <= transferredBytes ? remoteSize : 0;
+        exportMetrics.recordResumedBytes(adapter, offset);
+        exportMetrics.recordResentBytes(adapter, transferredBytes - offset);
+        return offset;
+    }
+
+    /**
+     * @return a stream counting the bytes sent by this attempt, which starts at offset
+     */
+    InputStream track(InputStream inputStream, long offset) {
+        return new FilterInputStream(inputStream) {
+            private long position = offset;
+
+            @Override
+            public int read() throws IOException {
+                int read = super.read();
+                if (read != -1) {
+                    moveTo(position + 1);
+                }
+                return read;
+            }
+
+            @Override
+            public int read(byte[] bytes, int off, int len) throws IOException {
+                int read = super.read(bytes, off, len);
+                if (read > 0) {
+                    moveTo(position + read);
+                }
+                return read;
+            }
+
+            private void moveTo(long newPosition) {
+                position = newPosition;
+                transferredBytes = Math.max(transferredBytes, position);
+            }
+        };
+    }
+}
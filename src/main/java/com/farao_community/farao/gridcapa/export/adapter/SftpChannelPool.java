@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.config_properties.ConnectionPoolProperties;
+import com.farao_community.farao.gridcapa.export.config_properties.SftpConfigurationProperties;
+import com.farao_community.farao.gridcapa.export.exception.PoolExhaustedException;
+import com.jcraft.jsch.ChannelSftp;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+
+/**
+ * Pool of SFTP channels, keyed by destination, sharing a few authenticated SSH sessions.
+ * Channels are checked when borrowed and while idle, and closed once idle or older than the configured durations.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@Component
+@ConditionalOnProperty(prefix = "sftp", name = "active", havingValue = "true")
+public class SftpChannelPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SftpChannelPool.class);
+    private static final String METRICS_PREFIX = "gridcapa.export.sftp.pool.";
+
+    private final SftpChannelPooledObjectFactory factory;
+    private final GenericKeyedObjectPool<SftpDestination, ChannelSftp> pool;
+
+    public SftpChannelPool(SftpConfigurationProperties sftpConfigurationProperties, MeterRegistry meterRegistry) {
+        ConnectionPoolProperties poolProperties = sftpConfigurationProperties.getPool();
+        GenericKeyedObjectPoolConfig<ChannelSftp> poolConfig = new GenericKeyedObjectPoolConfig<>();
+        poolConfig.setMaxTotalPerKey(poolProperties.maxSize());
+        poolConfig.setMaxIdlePerKey(poolProperties.maxSize());
+        poolConfig.setMaxTotal(-1);
+        poolConfig.setMaxWait(poolProperties.maxWait());
+        poolConfig.setMinEvictableIdleDuration(poolProperties.maxIdleTime());
+        poolConfig.setTimeBetweenEvictionRuns(poolProperties.evictionInterval());
+        poolConfig.setTestOnBorrow(true);
+        poolConfig.setTestWhileIdle(true);
+        poolConfig.setJmxEnabled(false);
+        this.factory = new SftpChannelPooledObjectFactory(sftpConfigurationProperties.getChannelsPerSession(), poolProperties.maxLifetime(),
+                sftpConfigurationProperties.getConnectTimeout());
+        this.pool = new GenericKeyedObjectPool<>(factory, poolConfig);
+        registerMetrics(meterRegistry);
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder(METRICS_PREFIX + "sessions", factory, SftpChannelPooledObjectFactory::getOpenSessionCount).register(meterRegistry);
+        Gauge.builder(METRICS_PREFIX + "active", pool, GenericKeyedObjectPool::getNumActive).register(meterRegistry);
+        Gauge.builder(METRICS_PREFIX + "idle", pool, GenericKeyedObjectPool::getNumIdle).register(meterRegistry);
+        Gauge.builder(METRICS_PREFIX + "waiters", pool, GenericKeyedObjectPool::getNumWaiters).register(meterRegistry);
+        FunctionCounter.builder(METRICS_PREFIX + "created", pool, GenericKeyedObjectPool::getCreatedCount).register(meterRegistry);
+        FunctionCounter.builder(METRICS_PREFIX + "destroyed", pool, GenericKeyedObjectPool::getDestroyedCount).register(meterRegistry);
+        FunctionCounter.builder(METRICS_PREFIX + "borrowed", pool, GenericKeyedObjectPool::getBorrowedCount).register(meterRegistry);
+    }
+
+    /**
+     * @throws PoolExhaustedException when all the channels stay in use for the max wait, any other exception coming
+     *                                from the creation or the activation of a channel
+     */
+    public ChannelSftp borrow(SftpDestination destination) throws Exception { // NOSONAR commons-pool only declares Exception
+        return borrow(destination, pool.getMaxWaitDuration());
+    }
+
+    /**
+     * @param maxWait time waited at most for a channel in use to be released, instead of the configured max wait
+     */
+    public ChannelSftp borrow(SftpDestination destination, Duration maxWait) throws Exception { // NOSONAR commons-pool only declares Exception
+        try {
+            return pool.borrowObject(destination, maxWait.toMillis());
+        } catch (NoSuchElementException e) {
+            // commons-pool only gives a cause when the creation or activation of a channel failed
+            if (e.getCause() == null) {
+                throw new PoolExhaustedException("No SFTP channel to " + destination + " available: " + e.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Gives the channel back to the pool, or closes it when it may be left in an unknown state
+     */
+    public void release(SftpDestination destination, ChannelSftp channelSftp, boolean reusable) {
+        try {
+            if (reusable) {
+                pool.returnObject(destination, channelSftp);
+            } else {
+                pool.invalidateObject(destination, channelSftp);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Could not release SFTP channel to {}: {}", destination, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.close();
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpException;
+import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates SFTP channels multiplexed over a few long-lived SSH sessions: a new session is only opened when all the
+ * connected ones already carry channelsPerSession channels, and a session is closed with its last channel.
+ * Slots on the sessions of a destination are reserved under a lock of their own, sessions and channels connecting
+ * outside of it, and both give up connecting after connectTimeout.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+class SftpChannelPooledObjectFactory extends BaseKeyedPooledObjectFactory<SftpDestination, ChannelSftp> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SftpChannelPooledObjectFactory.class);
+
+    private final int channelsPerSession;
+    private final Duration maxLifetime;
+    private final int connectTimeoutMillis;
+    private final Map<SftpDestination, DestinationSessions> sessionsByDestination = new ConcurrentHashMap<>();
+
+    SftpChannelPooledObjectFactory(int channelsPerSession, Duration maxLifetime, Duration connectTimeout) {
+        this.channelsPerSession = Math.max(1, channelsPerSession);
+        this.maxLifetime = maxLifetime;
+        this.connectTimeoutMillis = (int) Math.min(Integer.MAX_VALUE, connectTimeout.toMillis());
+    }
+
+    @Override
+    public ChannelSftp create(SftpDestination destination) throws JSchException {
+        DestinationSessions destinationSessions = sessionsByDestination.computeIfAbsent(destination, DestinationSessions::new);
+        Session session = destinationSessions.reserveChannel();
+        try {
+            ChannelSftp channelSftp = (ChannelSftp) session.openChannel("sftp");
+            LOGGER.info("Attempt to connect to SFTP channel");
+            channelSftp.connect(connectTimeoutMillis);
+            LOGGER.info("Connection established");
+            return channelSftp;
+        } catch (JSchException e) {
+            destinationSessions.releaseChannel(session);
+            throw e;
+        }
+    }
+
+    private Session openSession(SftpDestination destination) throws JSchException {
+        LOGGER.info("Attempt to open SSH session to {}", destination);
+        Session jschSession = new JSch().getSession(destination.accessKey(), destination.host(), destination.port());
+        jschSession.setPassword(destination.secretKey());
+        jschSession.setConfig("StrictHostKeyChecking", "no");
+        jschSession.connect(connectTimeoutMillis);
+        return jschSession;
+    }
+
+    @Override
+    public PooledObject<ChannelSftp> wrap(ChannelSftp channelSftp) {
+        return new DefaultPooledObject<>(channelSftp);
+    }
+
+    @Override
+    public void activateObject(SftpDestination destination, PooledObject<ChannelSftp> pooledObject) throws SftpException {
+        ChannelSftp channelSftp = pooledObject.getObject();
+        channelSftp.cd(channelSftp.getHome());
+    }
+
+    /**
+     * A channel is kept as long as it is younger than the max lifetime and its session answers a stat request
+     */
+    @Override
+    public boolean validateObject(SftpDestination destination, PooledObject<ChannelSftp> pooledObject) {
+        if (pooledObject.getCreateInstant().plus(maxLifetime).isBefore(Instant.now())) {
+            return false;
+        }
+        ChannelSftp channelSftp = pooledObject.getObject();
+        try {
+            return channelSftp.isConnected() && channelSftp.getSession().isConnected() && channelSftp.stat(".") != null;
+        } catch (JSchException | SftpException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void destroyObject(SftpDestination destination, PooledObject<ChannelSftp> pooledObject) {
+        ChannelSftp channelSftp = pooledObject.getObject();
+        channelSftp.disconnect();
+        try {
+            Session session = channelSftp.getSession();
+            DestinationSessions destinationSessions = sessionsByDestination.get(destination);
+            if (destinationSessions != null) {
+                destinationSessions.releaseChannel(session);
+            }
+        } catch (JSchException e) {
+            // channel was never attached to a session
+        }
+    }
+
+    int getOpenSessionCount() {
+        return sessionsByDestination.values().stream().mapToInt(DestinationSessions::getSessionCount).sum();
+    }
+
+    /**
+     * SSH sessions opened to a destination, with the number of channels each of them carries. A slot on a session is
+     * reserved under the lock, while a new session connects outside of it: threads reserving a slot on a session being
+     * opened wait for its connection, those reserving on connected sessions are not held up by it.
+     */
+    private final class DestinationSessions {
+        private final SftpDestination destination;
+        private final List<SessionSlots> sessions = new ArrayList<>();
+
+        private DestinationSessions(SftpDestination destination) {
+            this.destination = destination;
+        }
+
+        /**
+         * @return a connected session with room for one more channel, counted as carrying it
+         */
+        Session reserveChannel() throws JSchException {
+            final SessionSlots sessionSlots;
+            final boolean opening;
+            synchronized (this) {
+                sessions.removeIf(this::isDropped);
+                SessionSlots withRoom = sessions.stream()
+                        .filter(slots -> slots.channels < channelsPerSession)
+                        .findFirst()
+                        .orElse(null);
+                opening = withRoom == null;
+                sessionSlots = opening ? new SessionSlots() : withRoom;
+                if (opening) {
+                    sessions.add(sessionSlots);
+                }
+                sessionSlots.channels++;
+            }
+            if (opening) {
+                open(sessionSlots);
+            }
+            return awaitSession(sessionSlots);
+        }
+
+        private void open(SessionSlots sessionSlots) {
+            try {
+                sessionSlots.session.complete(openSession(destination));
+            } catch (JSchException e) {
+                synchronized (this) {
+                    sessions.remove(sessionSlots);
+                }
+                sessionSlots.session.completeExceptionally(e);
+            }
+        }
+
+        private static Session awaitSession(SessionSlots sessionSlots) throws JSchException {
+            try {
+                return sessionSlots.session.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof JSchException jschException ? jschException : new JSchException("Cannot open SSH session", e.getCause());
+            }
+        }
+
+        private boolean isDropped(SessionSlots sessionSlots) {
+            Session session = sessionSlots.session.getNow(null);
+            boolean dropped = session != null && !session.isConnected();
+            if (dropped) {
+                LOGGER.warn("SSH session to {} was dropped, a new one will be opened", destination);
+            }
+            return dropped;
+        }
+
+        synchronized void releaseChannel(Session session) {
+            SessionSlots sessionSlots = sessions.stream()
+                    .filter(slots -> slots.session.getNow(null) == session)
+                    .findFirst()
+                    .orElse(null);
+            if (sessionSlots == null) {
+                return;
+            }
+            sessionSlots.channels--;
+            if (sessionSlots.channels <= 0) {
+                sessions.remove(sessionSlots);
+                session.disconnect();
+                LOGGER.info("Connection closed");
+            }
+        }
+
+        synchronized int getSessionCount() {
+            return (int) sessions.stream().filter(slots -> slots.session.getNow(null) != null).count();
+        }
+    }
+
+    /**
+     * A session, connected or being opened, with the number of channels reserved on it
+     */
+    private static final class SessionSlots {
+        private final CompletableFuture<Session> session = new CompletableFuture<>();
+        private int channels;
+    }
+}
@@ -6,19 +6,28 @@
  */
 package com.farao_community.farao.gridcapa.export.adapter;
 
+import com.farao_community.farao.gridcapa.export.config.SpoolConfiguration;
 import com.farao_community.farao.gridcapa.export.config_properties.SftpConfigurationProperties;
 import com.farao_community.farao.gridcapa.export.exception.ClientAdapterException;
+import com.farao_community.farao.gridcapa.export.exception.PoolExhaustedException;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
 import com.jcraft.jsch.ChannelSftp;
-import com.jcraft.jsch.JSch;
-import com.jcraft.jsch.JSchException;
-import com.jcraft.jsch.Session;
 import com.jcraft.jsch.SftpException;
 import org.slf4j.Logger;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 
 /**
  * @author Oualid Aloui {@literal <oualid.aloui at rte-france.com>}
@@ -29,35 +38,252 @@ import java.io.InputStream;
 public class SftpClientAdapter implements ClientAdapter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SftpClientAdapter.class);
+    private static final String ADAPTER = "sftp";
 
     private final SftpConfigurationProperties sftpConfigurationProperties;
+    private final SftpChannelPool sftpChannelPool;
+    private final SpoolConfiguration spoolConfiguration;
+    private final ExportMetrics exportMetrics;
+    private final TransferThrottle transferThrottle;
+    private final CircuitBreaker circuitBreaker;
+    private final Scheduler unzipScheduler;
 
-    public SftpClientAdapter(SftpConfigurationProperties sftpConfigurationProperties) {
+    /**
+     * @param fileTransferMaxConcurrency files uploaded at the same time at most, each archive being unzipped by
+     *                                   several workers of the unzip scheduler of the adapter
+     */
+    public SftpClientAdapter(SftpConfigurationProperties sftpConfigurationProperties, SftpChannelPool sftpChannelPool, SpoolConfiguration spoolConfiguration, ExportMetrics exportMetrics,
+                            @Value("${export.file-transfer.max-concurrency:4}") int fileTransferMaxConcurrency) {
         this.sftpConfigurationProperties = sftpConfigurationProperties;
+        this.sftpChannelPool = sftpChannelPool;
+        this.spoolConfiguration = spoolConfiguration;
+        this.exportMetrics = exportMetrics;
+        this.transferThrottle = new TransferThrottle(sftpConfigurationProperties.getThrottle(), exportMetrics, ADAPTER, getDestination());
+        this.circuitBreaker = new CircuitBreaker(sftpConfigurationProperties.getCircuitBreaker(), exportMetrics, ADAPTER, getDestination());
+        this.unzipScheduler = Schedulers.newBoundedElastic(Math.max(1, sftpConfigurationProperties.getUnzipChannels()) * Math.max(1, fileTransferMaxConcurrency),
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "gridcapa-export-unzip");
     }
 
+    @Override
+    @PreDestroy
+    public void close() {
+        unzipScheduler.dispose();
+    }
+
+    @Override
+    public String getDestination() {
+        return "sftp://" + SftpDestination.of(sftpConfigurationProperties);
+    }
+
+    CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    @Override
     public void upload(String fileName, boolean unzip, InputStream inputStream) throws ClientAdapterException {
+        UploadRetries.await(uploadDeferred(fileName, unzip, inputStream));
+    }
+
+    /**
+     * The stream is only spooled as far as a resumed retry needs it
+     */
+    @Override
+    public Mono<Void> uploadDeferred(String fileName, boolean unzip, InputStream inputStream) {
+        return Mono.using(() -> SpooledUploadSource.resumable(inputStream, spoolConfiguration),
+                uploadSource -> uploadSpooled(fileName, unzip, uploadSource),
+                uploadSource -> release(fileName, uploadSource));
+    }
+
+    /**
+     * Makes the first attempt right away, then retries failed attempts after a jittered exponential backoff starting
+     * at retrySleep seconds, capped at retryMaxSleep seconds. While the circuit of the destination is open, attempts
+     * wait for it to let them through instead of failing.
+     */
+    @Override
+    public Mono<Void> uploadSpooled(String fileName, boolean unzip, SpooledUploadSource uploadSource) {
+        final int maxRetryCount = sftpConfigurationProperties.getRetryCount();
+        final Duration retrySleep = Duration.ofSeconds(sftpConfigurationProperties.getRetrySleep());
+        final Duration retryMaxSleep = Duration.ofSeconds(sftpConfigurationProperties.getRetryMaxSleep());
+        return Mono.defer(() -> {
+            final ResumableUpload resumableUpload = new ResumableUpload(exportMetrics, ADAPTER);
+            return UploadRetries.withBackoff(() -> performSingleUploadAttempt(fileName, unzip, uploadSource, resumableUpload),
+                    maxRetryCount, retrySleep, retryMaxSleep, () -> exportMetrics.recordUploadRetry(ADAPTER, getDestination()), circuitBreaker::untilAttemptAllowed);
+        }).flatMap(successfulSftpSend -> {
+            if (successfulSftpSend) {
+                return Mono.empty();
+            }
+            exportMetrics.recordUploadFailure(ADAPTER, getDestination());
+            return Mono.error(new ClientAdapterException(String.format("Upload of file %s failed after %d retries", fileName, maxRetryCount)));
+        });
+    }
+
+    /**
+     * Each attempt waits for a transfer slot of the destination, is deferred when the circuit of the destination does
+     * not let it through, then reads the upload source again, so that a retry never sends a partially consumed stream.
+     * When a previous attempt already sent part of the file, the transfer is resumed in append mode from the size
+     * reported by a stat of the remote file.
+     */
+    private UploadRetries.Outcome performSingleUploadAttempt(String fileName, boolean unzip, SpooledUploadSource uploadSource, ResumableUpload resumableUpload) {
+        UploadRetries.Outcome outcome;
+        try (TransferThrottle.Permit permit = transferThrottle.acquire()) {
+            if (circuitBreaker.tryAcquire()) {
+                outcome = performThrottledUploadAttempt(fileName, unzip, uploadSource, resumableUpload) ? UploadRetries.Outcome.SUCCEEDED : UploadRetries.Outcome.FAILED;
+            } else {
+                LOGGER.warn("Circuit of {} is open, upload attempt of {} deferred", getDestination(), fileName);
+                outcome = UploadRetries.Outcome.REJECTED;
+            }
+        } catch (InterruptedIOException e) {
+            LOGGER.error("Fail during upload", e);
+            outcome = UploadRetries.Outcome.FAILED;
+        }
+        if (outcome != UploadRetries.Outcome.SUCCEEDED) {
+            drain(fileName, uploadSource);
+        }
+        return outcome;
+    }
+
+    private boolean performThrottledUploadAttempt(String fileName, boolean unzip, SpooledUploadSource uploadSource, ResumableUpload resumableUpload) {
+        final SftpDestination destination = SftpDestination.of(sftpConfigurationProperties);
+        if (unzip) {
+            LOGGER.info("Attempt to unzip {} to SFTP server", fileName);
+            return unzipAndStoreFiles(destination, fileName, uploadSource);
+        }
+        final ChannelSftp channelSftp;
+        try {
+            channelSftp = borrow(destination);
+        } catch (Exception e) {
+            LOGGER.error("Fail to get a channel to SFTP server", e);
+            return false;
+        }
+        final String remotePath = sftpConfigurationProperties.getRemoteRelativeDestinationDirectory() + "/" + fileName;
+        boolean reusable = false;
         try {
-            JSch jsch = new JSch();
-            Session jschSession = jsch.getSession(sftpConfigurationProperties.getAccessKey(), sftpConfigurationProperties.getHost(), sftpConfigurationProperties.getPort());
-            jschSession.setPassword(sftpConfigurationProperties.getSecretKey());
-            jschSession.setConfig("StrictHostKeyChecking", "no");
-            jschSession.connect();
-
-            ChannelSftp channelSftp = (ChannelSftp) jschSession.openChannel("sftp");
-            LOGGER.info("Attempt to connect to SFTP channel");
-            channelSftp.connect();
-            LOGGER.info("Connection established");
-            LOGGER.info("Attempt to copy {} file to SFTP server", fileName);
-            channelSftp.put(inputStream, sftpConfigurationProperties.getRemoteRelativeDestinationDirectory() + "/" + fileName);
+            final long offset = resumableUpload.hasTransferredBytes() ? resumableUpload.resumeOffset(remoteFileSize(channelSftp, remotePath)) : 0;
+            putFile(channelSftp, fileName, remotePath, uploadSource, offset, resumableUpload);
             LOGGER.info("File {} copied successfully to SFTP server", fileName);
+            reusable = true;
+            return true;
+        } catch (SftpException | IOException e) {
+            LOGGER.error("Fail during upload", e);
+            // a failure reported by the server leaves the channel usable, unlike a broken connection
+            reusable = e instanceof SftpException && channelSftp.isConnected();
+            return false;
+        } finally {
+            sftpChannelPool.release(destination, channelSftp, reusable);
+        }
+    }
+
+    private void putFile(ChannelSftp channelSftp, String fileName, String remotePath, SpooledUploadSource uploadSource, long offset, ResumableUpload resumableUpload)
+            throws SftpException, IOException {
+        try (InputStream inputStream = uploadSource.open(offset)) {
+            if (offset > 0) {
+                LOGGER.info("Attempt to resume copy of {} file to SFTP server from byte {}", fileName, offset);
+                channelSftp.put(transferThrottle.throttle(resumableUpload.track(inputStream, offset)), remotePath, ChannelSftp.APPEND);
+            } else {
+                LOGGER.info("Attempt to copy {} file to SFTP server", fileName);
+                channelSftp.put(transferThrottle.throttle(resumableUpload.track(inputStream, 0)), remotePath, ChannelSftp.OVERWRITE);
+            }
+        }
+    }
 
-            channelSftp.disconnect();
-            jschSession.disconnect();
-            LOGGER.info("Connection closed");
-        } catch (JSchException | SftpException e) {
-            LOGGER.error("Fail during upload");
-            throw new ClientAdapterException(e);
+    /**
+     * The archive is spooled once to disk, its directory created once, then its entries are uploaded concurrently
+     * over several pooled channels
+     */
+    private boolean unzipAndStoreFiles(SftpDestination destination, String fileName, SpooledUploadSource uploadSource) {
+        final String directory = sftpConfigurationProperties.getRemoteRelativeDestinationDirectory() + "/" + fileName.replace(".zip", "");
+        try {
+            final Path archive = uploadSource.toFile();
+            makeDirectory(destination, directory);
+            return ConcurrentZipEntryUpload.upload(archive, sftpConfigurationProperties.getUnzipChannels(), unzipScheduler, () -> openEntryStore(destination, directory));
+        } catch (Exception e) {
+            LOGGER.error("Fail during upload", e);
+            return false;
+        }
+    }
+
+    /**
+     * Feeds the circuit breaker with the outcome of getting the channel, a pool exhausted by local uploads
+     * not being a failure of the destination
+     */
+    private ChannelSftp borrow(SftpDestination destination) throws Exception { // NOSONAR commons-pool only declares Exception
+        try {
+            final ChannelSftp channelSftp = sftpChannelPool.borrow(destination);
+            circuitBreaker.onSuccess();
+            return channelSftp;
+        } catch (PoolExhaustedException e) {
+            throw e;
+        } catch (Exception e) {
+            circuitBreaker.onFailure();
+            throw e;
+        }
+    }
+
+    private void makeDirectory(SftpDestination destination, String directory) throws Exception { // NOSONAR commons-pool only declares Exception
+        final ChannelSftp channelSftp = borrow(destination);
+        boolean reusable = false;
+        try {
+            if (remoteFileSize(channelSftp, directory) < 0) {
+                channelSftp.mkdir(directory);
+            }
+            reusable = true;
+        } finally {
+            sftpChannelPool.release(destination, channelSftp, reusable);
+        }
+    }
+
+    private ConcurrentZipEntryUpload.EntryStore openEntryStore(SftpDestination destination, String directory) throws Exception { // NOSONAR commons-pool only declares Exception
+        final ChannelSftp channelSftp = borrow(destination);
+        return new ConcurrentZipEntryUpload.EntryStore() {
+            private boolean reusable = true;
+
+            @Override
+            public boolean store(String entryName, InputStream inputStream) {
+                LOGGER.info("Attempt to copy {} file to SFTP server", entryName);
+                try {
+                    channelSftp.put(transferThrottle.throttle(inputStream), directory + "/" + entryName);
+                    LOGGER.info("File {} copied successfully to SFTP server", entryName);
+                    exportMetrics.recordUnzipEntry(ADAPTER, getDestination(), true);
+                    return true;
+                } catch (SftpException e) {
+                    LOGGER.error("File {} couldn't be copied to SFTP server", entryName, e);
+                    exportMetrics.recordUnzipEntry(ADAPTER, getDestination(), false);
+                    reusable = channelSftp.isConnected();
+                    return false;
+                }
+            }
+
+            @Override
+            public void close() {
+                sftpChannelPool.release(destination, channelSftp, reusable);
+            }
+        };
+    }
+
+    private static long remoteFileSize(ChannelSftp channelSftp, String remotePath) {
+        try {
+            return channelSftp.stat(remotePath).getSize();
+        } catch (SftpException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads what is left of the source once an attempt failed, so that its stream is handed back before any retry
+     */
+    private static void drain(String fileName, SpooledUploadSource uploadSource) {
+        try {
+            uploadSource.drain();
+        } catch (IOException e) {
+            LOGGER.error("Could not read the rest of file {}", fileName, e);
+        }
+    }
+
+    private static void release(String fileName, SpooledUploadSource uploadSource) {
+        try {
+            uploadSource.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not release spooled content of file {}", fileName, e);
         }
     }
 }
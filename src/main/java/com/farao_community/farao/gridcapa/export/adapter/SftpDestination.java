@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.config_properties.SftpConfigurationProperties;
+
+/**
+ * Key of the SFTP channel pool: sessions and channels are only shared between uploads targeting the same server, account and directory
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public record SftpDestination(String host, int port, String accessKey, String secretKey, String remoteRelativeDestinationDirectory) {
+
+    public static SftpDestination of(SftpConfigurationProperties sftpConfigurationProperties) {
+        return new SftpDestination(sftpConfigurationProperties.getHost(),
+                sftpConfigurationProperties.getPort(),
+                sftpConfigurationProperties.getAccessKey(),
+                sftpConfigurationProperties.getSecretKey(),
+                sftpConfigurationProperties.getRemoteRelativeDestinationDirectory());
+    }
+
+    @Override
+    public String toString() {
+        return accessKey + "@" + host + ":" + port + "/" + remoteRelativeDestinationDirectory;
+    }
+}
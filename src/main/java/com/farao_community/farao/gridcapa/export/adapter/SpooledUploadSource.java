@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.config.SpoolConfiguration;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Upload content that can be read several times without fetching it again.
+ * The first stream opened reads the source directly and keeps a copy of what it reads, so the first attempt still
+ * overlaps with the download. Each following stream first drains what is left of the source into the copy, then
+ * replays it: from memory below the configured threshold, from a memory-mapped temporary file above it.
+ * A source created with {@link #resumable} only keeps the last threshold bytes read by the first stream, without any
+ * disk write: a failed attempt is resumed from what the destination already received, so content it got long before
+ * is never needed again, and only what is left of the source after a failure is spooled.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public final class SpooledUploadSource implements Closeable {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final long MAPPED_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final InputStream source;
+    private final long memoryThreshold;
+    private final Path spoolDirectory;
+    private final boolean keepsTailOnly;
+    private MemorySpool memorySpool = new MemorySpool();
+    private Path spoolFile;
+    private OutputStream spoolFileOutput;
+    private FileChannel spoolFileChannel;
+    private long heldFrom;
+    private long size;
+    private boolean sourceConsumed;
+    private boolean firstStreamOpened;
+
+    /**
+     * Content replayable from offset zero, whatever the first stream read
+     */
+    public SpooledUploadSource(InputStream source, SpoolConfiguration spoolConfiguration) {
+        this(source, spoolConfiguration, false);
+    }
+
+    private SpooledUploadSource(InputStream source, SpoolConfiguration spoolConfiguration, boolean keepsTailOnly) {
+        this.source = source;
+        this.memoryThreshold = spoolConfiguration.memoryThreshold().toBytes();
+        this.spoolDirectory = spoolConfiguration.spoolDirectory();
+        this.keepsTailOnly = keepsTailOnly;
+    }
+
+    /**
+     * @return content only replayable from the last threshold bytes read by the first stream on, for uploads resumed
+     * from the size of the remote file
+     */
+    public static SpooledUploadSource resumable(InputStream source, SpoolConfiguration spoolConfiguration) {
+        return new SpooledUploadSource(source, spoolConfiguration, true);
+    }
+
+    /**
+     * @return a stream over the whole content, starting from offset zero
+     */
+    public InputStream open() throws IOException {
+        return open(0);
+    }
+
+    /**
+     * @return a stream over the content, starting from offset
+     * @throws IOException when the content before offset is no longer held
+     */
+    public synchronized InputStream open(long offset) throws IOException {
+        if (!firstStreamOpened) {
+            firstStreamOpened = true;
+            return skipTo(new SpoolingInputStream(), offset);
+        }
+        drainSource();
+        if (offset < heldFrom) {
+            throw new IOException(String.format("Cannot replay content from byte %d, only bytes from %d on are still held", offset, heldFrom));
+        }
+        if (spoolFile == null) {
+            return skipTo(memorySpool.open(), offset - heldFrom);
+        }
+        if (spoolFileChannel == null) {
+            spoolFileChannel = FileChannel.open(spoolFile, StandardOpenOption.READ);
+        }
+        return skipTo(new MappedFileInputStream(spoolFileChannel, size - heldFrom), offset - heldFrom);
+    }
+
+    /**
+     * Reads the whole source, and gives access to the content as a file, spooling it to disk even below the memory threshold
+     *
+     * @throws IOException when the start of the content is no longer held
+     */
+    public synchronized Path toFile() throws IOException {
+        drainSource();
+        if (heldFrom > 0) {
+            throw new IOException(String.format("Cannot spool content to a file, only bytes from %d on are still held", heldFrom));
+        }
+        if (spoolFile == null) {
+            spillToFile();
+            spoolFileOutput.close();
+        }
+        return spoolFile;
+    }
+
+    /**
+     * @return the spool file holding the whole content, when the source was already read to its end and spooled to
+     * disk, empty otherwise, without reading anything from the source
+     */
+    public synchronized Optional<Path> spooledFile() {
+        return sourceConsumed && heldFrom == 0 ? Optional.ofNullable(spoolFile) : Optional.empty();
+    }
+
+    /**
+     * @return the number of bytes read from the source so far, which is the full size once a second stream was opened
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Reads what is left of the source into the copy, so that the content can still be replayed once the source is closed
+     */
+    public synchronized void drain() throws IOException {
+        drainSource();
+    }
+
+    private void drainSource() throws IOException {
+        if (sourceConsumed) {
+            return;
+        }
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        int read = source.read(buffer);
+        while (read != -1) {
+            spool(buffer, 0, read, false);
+            read = source.read(buffer);
+        }
+        sourceConsumed = true;
+        if (spoolFileOutput != null) {
+            spoolFileOutput.close();
+        }
+    }
+
+    /**
+     * @param firstPass true when the bytes are read by the first stream, which may drop the oldest ones held in memory
+     */
+    private void spool(byte[] bytes, int offset, int length, boolean firstPass) throws IOException {
+        if (spoolFile == null) {
+            memorySpool.write(bytes, offset, length);
+            if (memorySpool.length() > memoryThreshold) {
+                if (firstPass && keepsTailOnly) {
+                    heldFrom += memorySpool.dropOldest(memoryThreshold);
+                } else {
+                    spillToFile();
+                }
+            }
+        } else {
+            spoolFileOutput.write(bytes, offset, length);
+        }
+        size += length;
+    }
+
+    private void spillToFile() throws IOException {
+        Files.createDirectories(spoolDirectory);
+        spoolFile = Files.createTempFile(spoolDirectory, "gridcapa-export-", ".spool");
+        spoolFileOutput = new BufferedOutputStream(Files.newOutputStream(spoolFile), COPY_BUFFER_SIZE);
+        memorySpool.writeTo(spoolFileOutput);
+        memorySpool = null;
+    }
+
+    private static InputStream skipTo(InputStream inputStream, long offset) throws IOException {
+        long skipped = inputStream.skip(offset);
+        if (skipped != offset) {
+            inputStream.close();
+            throw new IOException(String.format("Cannot replay content from byte %d, only %d bytes available", offset, skipped));
+        }
+        return inputStream;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (spoolFileChannel != null) {
+                spoolFileChannel.close();
+            }
+            if (spoolFileOutput != null) {
+                spoolFileOutput.close();
+            }
+        } finally {
+            if (spoolFile != null) {
+                Files.deleteIfExists(spoolFile);
+            }
+        }
+    }
+
+    /**
+     * First pass over the source, copying everything it reads to the spool
+     */
+    private final class SpoolingInputStream extends FilterInputStream {
+
+        private SpoolingInputStream() {
+            super(source);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            synchronized (SpooledUploadSource.this) {
+                if (sourceConsumed) {
+                    // a replay stream was opened meanwhile and drained the source
+                    return -1;
+                }
+                int read = in.read(bytes, offset, length);
+                if (read == -1) {
+                    sourceConsumed = true;
+                    if (spoolFileOutput != null) {
+                        spoolFileOutput.close();
+                    }
+                } else {
+                    spool(bytes, offset, read, true);
+                }
+                return read;
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(n, COPY_BUFFER_SIZE)];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read == -1) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public void close() {
+            // the source belongs to the caller, and what is left of it may still be replayed
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    /**
+     * Content held in memory as fixed-size blocks, the oldest of which can be dropped without copying the others
+     */
+    private static final class MemorySpool {
+
+        private final Deque<byte[]> blocks = new ArrayDeque<>();
+        private int lastBlockLength = COPY_BUFFER_SIZE;
+        private long length;
+
+        private void write(byte[] bytes, int offset, int count) {
+            int written = 0;
+            while (written < count) {
+                if (lastBlockLength == COPY_BUFFER_SIZE) {
+                    blocks.addLast(new byte[COPY_BUFFER_SIZE]);
+                    lastBlockLength = 0;
+                }
+                int copied = Math.min(count - written, COPY_BUFFER_SIZE - lastBlockLength);
+                System.arraycopy(bytes, offset + written, blocks.getLast(), lastBlockLength, copied);
+                lastBlockLength += copied;
+                written += copied;
+            }
+            length += count;
+        }
+
+        private long length() {
+            return length;
+        }
+
+        /**
+         * @return the number of bytes dropped, the last ones held staying at least minLength bytes long
+         */
+        private long dropOldest(long minLength) {
+            long dropped = 0;
+            while (blocks.size() > 1 && length - COPY_BUFFER_SIZE >= minLength) {
+                blocks.removeFirst();
+                length -= COPY_BUFFER_SIZE;
+                dropped += COPY_BUFFER_SIZE;
+            }
+            return dropped;
+        }
+
+        private void writeTo(OutputStream outputStream) throws IOException {
+            for (byte[] block : blocks) {
+                outputStream.write(block, 0, block == blocks.getLast() ? lastBlockLength : COPY_BUFFER_SIZE);
+            }
+        }
+
+        private InputStream open() {
+            List<InputStream> blockStreams = new ArrayList<>();
+            for (byte[] block : blocks) {
+                blockStreams.add(new ByteArrayInputStream(block, 0, block == blocks.getLast() ? lastBlockLength : COPY_BUFFER_SIZE));
+            }
+            return new SequenceInputStream(Collections.enumeration(blockStreams));
+        }
+    }
+
+    /**
+     * Reads a spool file through successive read-only memory-mapped windows
+     */
+    private static final class MappedFileInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long fileLength;
+        private long windowStart;
+        private MappedByteBuffer window;
+
+        private MappedFileInputStream(FileChannel channel, long length) {
+            this.channel = channel;
+            this.fileLength = length;
+        }
+
+        private boolean ensureWindow() throws IOException {
+            if (window != null && window.hasRemaining()) {
+                return true;
+            }
+            long nextStart = window == null ? windowStart : windowStart + window.capacity();
+            if (nextStart >= fileLength) {
+                return false;
+            }
+            windowStart = nextStart;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(MAPPED_WINDOW_SIZE, fileLength - windowStart));
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return ensureWindow() ? window.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!ensureWindow()) {
+                return -1;
+            }
+            int read = Math.min(length, window.remaining());
+            window.get(bytes, offset, read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long position = window == null ? windowStart : windowStart + window.position();
+            long target = Math.min(fileLength, position + Math.max(0, n));
+            windowStart = target;
+            window = null;
+            return target - position;
+        }
+
+        @Override
+        public int available() {
+            long position = window == null ? windowStart : windowStart + window.position();
+            return (int) Math.min(Integer.MAX_VALUE, fileLength - position);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stream read by chunks of maxReadSize bytes at most, each chunk waiting for its bytes from the throttle
+ *
+ * @author agent {@literal <agent at local>}
+ */
+final class ThrottledInputStream extends FilterInputStream {
+
+    private final TransferThrottle transferThrottle;
+    private final int maxReadSize;
+
+    ThrottledInputStream(InputStream in, TransferThrottle transferThrottle, int maxReadSize) {
+        super(in);
+        this.transferThrottle = transferThrottle;
+        this.maxReadSize = maxReadSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            transferThrottle.consume(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, Math.min(len, maxReadSize));
+        if (read > 0) {
+            transferThrottle.consume(read);
+        }
+        return read;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.config_properties.ThrottleProperties;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bandwidth and concurrency limits of the transfers to one destination. Bandwidth is enforced by a token bucket shared
+ * by all the transfers: each read of a throttled stream takes its bytes from the bucket, going into debt if needed, and
+ * sleeps until the debt is paid back. Reads being at most burst bytes long, the rate stays smooth. Concurrent
+ * transfers are limited by a fair semaphore, taken before any connection is borrowed.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+final class TransferThrottle {
+
+    private static final String BANDWIDTH = "bandwidth";
+    private static final String CONCURRENCY = "concurrency";
+
+    private final ExportMetrics exportMetrics;
+    private final String adapter;
+    private final String destination;
+    private final Semaphore transferSlots;
+    private final double bytesPerNanosecond;
+    private final long burstBytes;
+    private double availableBytes;
+    private long lastRefillNanos;
+
+    TransferThrottle(ThrottleProperties throttleProperties, ExportMetrics exportMetrics, String adapter, String destination) {
+        ThrottleProperties properties = throttleProperties != null ? throttleProperties : ThrottleProperties.unlimited();
+        this.exportMetrics = exportMetrics;
+        this.adapter = adapter;
+        this.destination = destination;
+        this.transferSlots = properties.maxConcurrentTransfers() > 0 ? new Semaphore(properties.maxConcurrentTransfers(), true) : null;
+        this.bytesPerNanosecond = properties.bandwidth() != null ? properties.bandwidth().toBytes() / 1e9 : 0;
+        this.burstBytes = Math.max(1, properties.burst().toBytes());
+        this.availableBytes = burstBytes;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Released on close, to be held for the whole transfer
+     */
+    interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Waits for a transfer slot to the destination
+     */
+    Permit acquire() throws InterruptedIOException {
+        if (transferSlots == null) {
+            return () -> { };
+        }
+        long startNanos = System.nanoTime();
+        try {
+            transferSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a transfer slot to " + destination);
+        }
+        recordWait(CONCURRENCY, System.nanoTime() - startNanos);
+        return transferSlots::release;
+    }
+
+    /**
+     * @return the stream read at the bandwidth of the destination at most
+     */
+    InputStream throttle(InputStream inputStream) {
+        return bytesPerNanosecond > 0 ? new ThrottledInputStream(inputStream, this, (int) Math.min(Integer.MAX_VALUE, burstBytes)) : inputStream;
+    }
+
+    /**
+     * Takes the bytes read from the bucket, and sleeps as long as the bucket is in debt
+     */
+    void consume(int bytes) throws InterruptedIOException {
+        long waitNanos = reserve(bytes);
+        if (waitNanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while throttling transfer to " + destination);
+        }
+        recordWait(BANDWIDTH, waitNanos);
+    }
+
+    private synchronized long reserve(int bytes) {
+        long now = System.nanoTime();
+        availableBytes = Math.min(burstBytes, availableBytes + (now - lastRefillNanos) * bytesPerNanosecond);
+        lastRefillNanos = now;
+        availableBytes -= bytes;
+        return availableBytes >= 0 ? 0 : (long) (-availableBytes / bytesPerNanosecond);
+    }
+
+    private void recordWait(String limit, long waitNanos) {
+        exportMetrics.recordThrottleWait(adapter, destination, limit, Duration.ofNanos(waitNanos));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.exception.ClientAdapterException;
+import org.slf4j.MDC;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Retries of a failed upload attempt after a jittered exponential backoff. The first attempt is made on the subscribing
+ * thread, delays are timers of a scheduler instead of sleeping threads, and retried attempts run on bounded elastic
+ * workers with the logging context of the caller, so that nobody is held while an upload waits for its next attempt.
+ * An attempt the circuit of the destination did not let through is made again once it may be, without counting as a retry.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+final class UploadRetries {
+
+    private static final double JITTER = 0.5;
+
+    enum Outcome {
+        SUCCEEDED,
+        FAILED,
+        REJECTED
+    }
+
+    private UploadRetries() {
+        // utility class
+    }
+
+    /**
+     * @param firstBackoff delay before the first retry, doubled for each further one up to maxBackoff
+     * @param untilAttemptAllowed delay before a rejected attempt is made again
+     * @return true when an attempt succeeded, false when all of them failed
+     */
+    static Mono<Boolean> withBackoff(Supplier<Outcome> attempt, int maxRetries, Duration firstBackoff, Duration maxBackoff, Runnable beforeRetry,
+                                     Supplier<Duration> untilAttemptAllowed) {
+        return Mono.defer(() -> {
+            Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+            return Mono.fromCallable(() -> runWithContext(attempt, mdcContext))
+                    .flatMap(outcome -> switch (outcome) {
+                        case SUCCEEDED -> Mono.just(true);
+                        case FAILED -> Mono.error(new AttemptFailedException());
+                        case REJECTED -> Mono.error(new AttemptRejectedException());
+                    })
+                    .retryWhen(Retry.from(signals -> signals.concatMap(signal -> signal.failure() instanceof AttemptRejectedException
+                            ? Mono.delay(untilAttemptAllowed.get(), Schedulers.boundedElastic())
+                            : Mono.error(signal.failure()))))
+                    .retryWhen(Retry.backoff(Math.max(0, maxRetries), firstBackoff)
+                            .maxBackoff(maxBackoff.compareTo(firstBackoff) > 0 ? maxBackoff : firstBackoff)
+                            .jitter(JITTER)
+                            .scheduler(Schedulers.boundedElastic())
+                            .filter(AttemptFailedException.class::isInstance)
+                            .doBeforeRetry(retrySignal -> beforeRetry.run()))
+                    .onErrorResume(Exceptions::isRetryExhausted, e -> Mono.just(false));
+        });
+    }
+
+    /**
+     * Waits for an upload, for adapters which also upload synchronously
+     */
+    static void await(Mono<Void> upload) throws ClientAdapterException {
+        try {
+            upload.block();
+        } catch (RuntimeException e) {
+            if (Exceptions.unwrap(e) instanceof ClientAdapterException clientAdapterException) {
+                throw clientAdapterException;
+            }
+            throw e;
+        }
+    }
+
+    private static Outcome runWithContext(Supplier<Outcome> attempt, Map<String, String> mdcContext) {
+        Map<String, String> previousContext = MDC.getCopyOfContextMap();
+        if (mdcContext != null) {
+            MDC.setContextMap(mdcContext);
+        }
+        try {
+            return attempt.get();
+        } finally {
+            if (previousContext != null) {
+                MDC.setContextMap(previousContext);
+            } else {
+                MDC.clear();
+            }
+        }
+    }
+
+    private static final class AttemptFailedException extends RuntimeException {
+        private AttemptFailedException() {
+            super("Upload attempt failed", null, false, false);
+        }
+    }
+
+    private static final class AttemptRejectedException extends RuntimeException {
+        private AttemptRejectedException() {
+            super("Upload attempt rejected by the circuit of the destination", null, false, false);
+        }
+    }
+}
@@ -6,11 +6,27 @@
  */
 package com.farao_community.farao.gridcapa.export.config;
 
+import com.farao_community.farao.gridcapa.export.config_properties.TaskManagerHttpProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+
 /**
  * @author Mohamed BenRejeb {@literal <mohamed.ben-rejeb at rte-france.com>}
  */
@@ -18,9 +34,66 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class BeansConfiguration {
 
+    private static final String TASK_MANAGER_POOL_NAME = "task-manager";
+
+    /**
+     * Built from the auto-configured builder, so that every task-manager call is timed in http.client.requests metrics
+     */
+    @Bean
+    public RestTemplate getRestTemplate(RestTemplateBuilder restTemplateBuilder, ClientHttpRequestFactory taskManagerRequestFactory) {
+        return restTemplateBuilder
+                .requestFactory(() -> taskManagerRequestFactory)
+                .additionalInterceptors(new GzipDecompressingInterceptor())
+                .build();
+    }
+
     @Bean
-    public RestTemplate getRestTemplate() {
-        return new RestTemplateBuilder().build();
+    public ClientHttpRequestFactory taskManagerRequestFactory(TaskManagerHttpProperties taskManagerHttpProperties, MeterRegistry meterRegistry) {
+        if (taskManagerHttpProperties.version() == HttpClient.Version.HTTP_2) {
+            return http2RequestFactory(taskManagerHttpProperties);
+        }
+        return pooledRequestFactory(taskManagerHttpProperties, meterRegistry);
+    }
+
+    private static ClientHttpRequestFactory http2RequestFactory(TaskManagerHttpProperties taskManagerHttpProperties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(taskManagerHttpProperties.connectTimeout())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(taskManagerHttpProperties.readTimeout());
+        return requestFactory;
     }
 
+    /**
+     * Connections are pooled per route and kept alive between polls and downloads, idle and expired ones are evicted in background.
+     * Content compression is left to the explicit negotiation of task JSON, output files being streamed as they are.
+     */
+    private static ClientHttpRequestFactory pooledRequestFactory(TaskManagerHttpProperties taskManagerHttpProperties, MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(taskManagerHttpProperties.maxConnections())
+                .setMaxConnPerRoute(taskManagerHttpProperties.maxConnectionsPerRoute())
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setTcpNoDelay(true)
+                        .setRcvBufSize((int) taskManagerHttpProperties.socketBufferSize().toBytes())
+                        .build())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(taskManagerHttpProperties.connectTimeout()))
+                        .setSocketTimeout(Timeout.of(taskManagerHttpProperties.readTimeout()))
+                        .setTimeToLive(TimeValue.of(taskManagerHttpProperties.connectionTimeToLive()))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, TASK_MANAGER_POOL_NAME).bindTo(meterRegistry);
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(taskManagerHttpProperties.connectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(taskManagerHttpProperties.readTimeout()))
+                        .setConnectionKeepAlive(TimeValue.of(taskManagerHttpProperties.keepAlive()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(taskManagerHttpProperties.keepAlive()))
+                .disableContentCompression()
+                .build());
+    }
 }
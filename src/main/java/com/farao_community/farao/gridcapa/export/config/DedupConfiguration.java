@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * When enabled, the digest of the last file uploaded for a timestamp, file type and destination is remembered
+ * (maxEntries at most, least recently used ones evicted first) and persisted to file, required then, so that
+ * identical files are not uploaded again
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@ConfigurationProperties(prefix = "export.dedup")
+public record DedupConfiguration(@DefaultValue("false") boolean enabled, @DefaultValue("10000") int maxEntries, Path file) {
+
+    public DedupConfiguration {
+        if (enabled && file == null) {
+            throw new IllegalArgumentException("export.dedup.file must be set when export.dedup.enabled is true");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.config;
+
+import com.farao_community.farao.gridcapa.export.adapter.ClientAdapter;
+import com.farao_community.farao.gridcapa.export.adapter.FanOutClientAdapter;
+import com.farao_community.farao.gridcapa.export.adapter.FileSystemClientAdapter;
+import com.farao_community.farao.gridcapa.export.adapter.FtpClientAdapter;
+import com.farao_community.farao.gridcapa.export.adapter.FtpClientPool;
+import com.farao_community.farao.gridcapa.export.adapter.SftpChannelPool;
+import com.farao_community.farao.gridcapa.export.adapter.SftpClientAdapter;
+import com.farao_community.farao.gridcapa.export.config_properties.DestinationProperties;
+import com.farao_community.farao.gridcapa.export.config_properties.FileSystemConfigurationProperties;
+import com.farao_community.farao.gridcapa.export.config_properties.FtpConfigurationProperties;
+import com.farao_community.farao.gridcapa.export.config_properties.SftpConfigurationProperties;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fan-out adapter used in place of the single ftp or sftp one as soon as a destination is configured.
+ * Destinations of a same protocol share a pool, keyed by destination: the one of the ftp or sftp section when it is
+ * active, otherwise one created here with the pool settings of that section.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "export.fan-out.destinations[0]", name = "name")
+public class FanOutAdapterConfiguration {
+
+    private final ObjectProvider<FtpClientPool> activeFtpClientPool;
+    private final ObjectProvider<SftpChannelPool> activeSftpChannelPool;
+    private FtpClientPool ftpClientPool;
+    private SftpChannelPool sftpChannelPool;
+    private FtpClientPool createdFtpClientPool;
+    private SftpChannelPool createdSftpChannelPool;
+
+    public FanOutAdapterConfiguration(ObjectProvider<FtpClientPool> activeFtpClientPool, ObjectProvider<SftpChannelPool> activeSftpChannelPool) {
+        this.activeFtpClientPool = activeFtpClientPool;
+        this.activeSftpChannelPool = activeSftpChannelPool;
+    }
+
+    @Bean
+    @Primary
+    public ClientAdapter fanOutClientAdapter(FanOutConfiguration fanOutConfiguration, FtpConfigurationProperties ftpConfigurationProperties,
+                                             SftpConfigurationProperties sftpConfigurationProperties, FileSystemConfigurationProperties fileSystemConfigurationProperties,
+                                             SpoolConfiguration spoolConfiguration,
+                                             ExportMetrics exportMetrics, MeterRegistry meterRegistry,
+                                             @Value("${export.file-transfer.max-concurrency:4}") int fileTransferMaxConcurrency,
+                                             @Value("${export.task-processing.max-concurrent-transfers:4}") int maxConcurrentTransfers) {
+        Map<String, ClientAdapter> destinations = new LinkedHashMap<>();
+        for (DestinationProperties destination : fanOutConfiguration.destinations()) {
+            ClientAdapter clientAdapter = switch (destination.type()) {
+                case FTP -> new FtpClientAdapter(destination.toFtpConfigurationProperties(ftpConfigurationProperties),
+                        getFtpClientPool(ftpConfigurationProperties, meterRegistry), spoolConfiguration, exportMetrics, fileTransferMaxConcurrency);
+                case SFTP -> new SftpClientAdapter(destination.toSftpConfigurationProperties(sftpConfigurationProperties),
+                        getSftpChannelPool(sftpConfigurationProperties, meterRegistry), spoolConfiguration, exportMetrics, fileTransferMaxConcurrency);
+                case LOCAL -> new FileSystemClientAdapter(destination.toFileSystemConfigurationProperties(fileSystemConfigurationProperties), exportMetrics,
+                        fileTransferMaxConcurrency);
+            };
+            if (destinations.put(destination.name(), clientAdapter) != null) {
+                throw new IllegalStateException("Fan-out destination " + destination.name() + " is configured twice");
+            }
+        }
+        // one file at a time per transfer worker of the service
+        int concurrentUploads = Math.max(1, maxConcurrentTransfers) * Math.max(1, fileTransferMaxConcurrency);
+        return new FanOutClientAdapter(destinations, fanOutConfiguration.bufferSize().toBytes(), concurrentUploads, spoolConfiguration, exportMetrics);
+    }
+
+    @PreDestroy
+    public void closePools() {
+        if (createdFtpClientPool != null) {
+            createdFtpClientPool.close();
+        }
+        if (createdSftpChannelPool != null) {
+            createdSftpChannelPool.close();
+        }
+    }
+
+    private FtpClientPool getFtpClientPool(FtpConfigurationProperties ftpConfigurationProperties, MeterRegistry meterRegistry) {
+        if (ftpClientPool == null) {
+            ftpClientPool = activeFtpClientPool.getIfAvailable(() -> {
+                createdFtpClientPool = new FtpClientPool(ftpConfigurationProperties, meterRegistry);
+                return createdFtpClientPool;
+            });
+        }
+        return ftpClientPool;
+    }
+
+    private SftpChannelPool getSftpChannelPool(SftpConfigurationProperties sftpConfigurationProperties, MeterRegistry meterRegistry) {
+        if (sftpChannelPool == null) {
+            sftpChannelPool = activeSftpChannelPool.getIfAvailable(() -> {
+                createdSftpChannelPool = new SftpChannelPool(sftpConfigurationProperties, meterRegistry);
+                return createdSftpChannelPool;
+            });
+        }
+        return sftpChannelPool;
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.config;
+
+import com.farao_community.farao.gridcapa.export.config_properties.DestinationProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+/**
+ * Destinations every output file is delivered to, from a single download. Each of them gets its own copy of the
+ * stream through a memory buffer of bufferSize bytes, a slow destination spooling what does not fit in it instead of
+ * holding the others back.
+ * When destinations are set, they replace the single ftp or sftp destination.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@ConfigurationProperties(prefix = "export.fan-out")
+public record FanOutConfiguration(@DefaultValue List<DestinationProperties> destinations, @DefaultValue("8MB") DataSize bufferSize) {
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * When enabled, task updates are journaled to a memory-mapped file until their export is over, so that exports
+ * interrupted by a restart are resumed. The file is required then, on a storage surviving restarts.
+ * The file is compacted when its initial size is reached, and grown when live entries do not fit in it anymore.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@ConfigurationProperties(prefix = "export.journal")
+public record JournalConfiguration(@DefaultValue("false") boolean enabled, Path file, @DefaultValue("16MB") DataSize size) {
+
+    public JournalConfiguration {
+        if (enabled && file == null) {
+            throw new IllegalArgumentException("export.journal.file must be set when export.journal.enabled is true");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.config;
+
+import com.farao_community.farao.gridcapa.export.config_properties.PriorityRule;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Order in which pending task updates are exported. An update belongs to the class of the first rule it matches, rules
+ * being listed from the most urgent class to the least urgent one, and to the lowest default class when it matches
+ * none. The delivery deadline of a task is its timestamp minus deliveryLeadTime. An update waiting for ageingInterval
+ * is promoted one class up, so that a steady flow of urgent updates does not starve the other ones.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@ConfigurationProperties(prefix = "export.priority")
+public record PriorityConfiguration(@DefaultValue List<PriorityRule> rules,
+                                    @DefaultValue("PT0S") Duration deliveryLeadTime,
+                                    @DefaultValue("PT5M") Duration ageingInterval) {
+}
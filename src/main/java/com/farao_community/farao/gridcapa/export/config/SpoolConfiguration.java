@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Uploaded files are kept in memory up to memoryThreshold, then spooled to a temporary file in directory
+ * (system temporary directory when not set), so that they can be read again on retry
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@ConfigurationProperties(prefix = "export.spool")
+public record SpoolConfiguration(@DefaultValue("16MB") DataSize memoryThreshold, Path directory) {
+
+    public Path spoolDirectory() {
+        return directory != null ? directory : Path.of(System.getProperty("java.io.tmpdir"));
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.config_properties;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker of a remote destination
+ *
+ * @param failureThreshold consecutive failures to get a connection after which uploads fail fast, 0 never to open it
+ * @param openDuration time uploads fail fast before a single attempt probes the destination again
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public record CircuitBreakerProperties(@DefaultValue("5") int failureThreshold,
+                                       @DefaultValue("PT30S") Duration openDuration) {
+
+    public static CircuitBreakerProperties defaults() {
+        return new CircuitBreakerProperties(5, Duration.ofSeconds(30));
+    }
+}
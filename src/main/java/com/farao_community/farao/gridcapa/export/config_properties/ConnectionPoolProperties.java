@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.config_properties;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Sizing and eviction settings of the connection pool kept for each remote destination
+ *
+ * @param maxSize maximum number of connections opened at the same time to a destination
+ * @param maxWait maximum time to wait for a connection when all of them are in use
+ * @param maxIdleTime idle time after which a connection is closed by the evictor
+ * @param maxLifetime age after which a connection is closed, even if it is still valid
+ * @param evictionInterval period of the evictor run checking idle connections
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public record ConnectionPoolProperties(@DefaultValue("4") int maxSize,
+                                       @DefaultValue("PT1M") Duration maxWait,
+                                       @DefaultValue("PT1M") Duration maxIdleTime,
+                                       @DefaultValue("PT30M") Duration maxLifetime,
+                                       @DefaultValue("PT30S") Duration evictionInterval) {
+}
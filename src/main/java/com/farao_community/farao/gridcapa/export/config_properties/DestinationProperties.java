@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.config_properties;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Named destination of a fan-out export. Connection pool and unzip settings are the ones of the ftp, sftp or
+ * filesystem section, connections being pooled per destination.
+ *
+ * @param name identifies the destination in logs and metrics
+ * @param type protocol used to reach the destination
+ * @param remoteRelativeDestinationDirectory for a LOCAL destination, the mounted directory files are written to
+ * @param retryCount uploads retried this many times before the destination is reported failed
+ * @param retrySleep seconds waited before the first retry, doubled for each further one, with jitter
+ * @param retryMaxSleep seconds waited at most before a retry
+ * @param throttle bandwidth and concurrency limits of the transfers to an FTP or SFTP destination
+ * @param circuitBreaker failures after which uploads to an FTP or SFTP destination fail fast, and for how long
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public record DestinationProperties(String name,
+                                    Type type,
+                                    String host,
+                                    int port,
+                                    String accessKey,
+                                    String secretKey,
+                                    String remoteRelativeDestinationDirectory,
+                                    @DefaultValue("3") int retryCount,
+                                    @DefaultValue("5") int retrySleep,
+                                    @DefaultValue ThrottleProperties throttle,
+                                    @DefaultValue CircuitBreakerProperties circuitBreaker,
+                                    @DefaultValue("60") int retryMaxSleep) {
+
+    public enum Type {
+        FTP,
+        SFTP,
+        LOCAL
+    }
+
+    public FtpConfigurationProperties toFtpConfigurationProperties(FtpConfigurationProperties ftpConfigurationProperties) {
+        return new FtpConfigurationProperties(host, port, accessKey, secretKey, remoteRelativeDestinationDirectory, retryCount, retrySleep,
+                ftpConfigurationProperties.getPool(), ftpConfigurationProperties.getUnzipConnections(), throttle, circuitBreaker, retryMaxSleep,
+                ftpConfigurationProperties.getConnectTimeout(), ftpConfigurationProperties.getSocketTimeout());
+    }
+
+    public SftpConfigurationProperties toSftpConfigurationProperties(SftpConfigurationProperties sftpConfigurationProperties) {
+        return new SftpConfigurationProperties(host, port, accessKey, secretKey, remoteRelativeDestinationDirectory,
+                sftpConfigurationProperties.getPool(), sftpConfigurationProperties.getChannelsPerSession(), retryCount, retrySleep,
+                sftpConfigurationProperties.getUnzipChannels(), throttle, circuitBreaker, retryMaxSleep, sftpConfigurationProperties.getConnectTimeout());
+    }
+
+    public FileSystemConfigurationProperties toFileSystemConfigurationProperties(FileSystemConfigurationProperties fileSystemConfigurationProperties) {
+        return new FileSystemConfigurationProperties(remoteRelativeDestinationDirectory, fileSystemConfigurationProperties.getUnzipThreads());
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.config_properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Destination directory mounted in the pod, local or network share, written to without any transfer protocol.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@ConfigurationProperties("filesystem")
+public class FileSystemConfigurationProperties {
+
+    private final String destinationDirectory;
+    private final int unzipThreads;
+
+    /**
+     * @param unzipThreads number of archive entries extracted in parallel
+     */
+    public FileSystemConfigurationProperties(String destinationDirectory, @DefaultValue("4") int unzipThreads) {
+        this.destinationDirectory = destinationDirectory;
+        this.unzipThreads = unzipThreads;
+    }
+
+    public String getDestinationDirectory() {
+        return destinationDirectory;
+    }
+
+    public int getUnzipThreads() {
+        return unzipThreads;
+    }
+
+}
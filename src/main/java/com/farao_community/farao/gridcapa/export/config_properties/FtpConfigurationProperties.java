@@ -7,6 +7,9 @@
 package com.farao_community.farao.gridcapa.export.config_properties;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
 
 /**
  * @author Mohamed Benrejeb {@literal <mohamed.ben-rejeb at rte-france.com>}
@@ -22,8 +25,19 @@ public class FtpConfigurationProperties {
 
     private int retryCount;
     private int retrySleep;
+    private ConnectionPoolProperties pool;
+    private int unzipConnections;
+    private ThrottleProperties throttle;
+    private CircuitBreakerProperties circuitBreaker;
+    private int retryMaxSleep;
+    private Duration connectTimeout;
+    private Duration socketTimeout;
 
-    public FtpConfigurationProperties(String host, int port, String accessKey, String secretKey, String remoteRelativeDestinationDirectory, int retryCount, int retrySleep) {
+    public FtpConfigurationProperties(String host, int port, String accessKey, String secretKey, String remoteRelativeDestinationDirectory, int retryCount, int retrySleep,
+                                      @DefaultValue ConnectionPoolProperties pool, @DefaultValue("4") int unzipConnections,
+                                      @DefaultValue ThrottleProperties throttle, @DefaultValue CircuitBreakerProperties circuitBreaker,
+                                      @DefaultValue("60") int retryMaxSleep, @DefaultValue("PT30S") Duration connectTimeout,
+                                      @DefaultValue("PT1M") Duration socketTimeout) {
         this.host = host;
         this.port = port;
         this.accessKey = accessKey;
@@ -31,6 +45,13 @@ public class FtpConfigurationProperties {
         this.remoteRelativeDestinationDirectory = remoteRelativeDestinationDirectory;
         this.retryCount = retryCount;
         this.retrySleep = retrySleep;
+        this.pool = pool;
+        this.unzipConnections = unzipConnections;
+        this.throttle = throttle;
+        this.circuitBreaker = circuitBreaker;
+        this.retryMaxSleep = retryMaxSleep;
+        this.connectTimeout = connectTimeout;
+        this.socketTimeout = socketTimeout;
     }
 
     public String getHost() {
@@ -60,4 +81,32 @@ public class FtpConfigurationProperties {
     public int getRetrySleep() {
         return retrySleep;
     }
+
+    public int getRetryMaxSleep() {
+        return retryMaxSleep;
+    }
+
+    public ConnectionPoolProperties getPool() {
+        return pool;
+    }
+
+    public int getUnzipConnections() {
+        return unzipConnections;
+    }
+
+    public ThrottleProperties getThrottle() {
+        return throttle;
+    }
+
+    public CircuitBreakerProperties getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getSocketTimeout() {
+        return socketTimeout;
+    }
 }
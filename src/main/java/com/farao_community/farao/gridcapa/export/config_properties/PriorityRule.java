@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.config_properties;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Priority class of the task updates matching all of its conditions, unset ones matching any update.
+ *
+ * @param name identifies the class in logs and metrics
+ * @param statuses task statuses matched, any when empty
+ * @param minTimeToDeadline matches updates whose delivery deadline is at least this far, negative for a past deadline
+ * @param maxTimeToDeadline matches updates whose delivery deadline is at most this far
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public record PriorityRule(String name,
+                           @DefaultValue Set<TaskStatus> statuses,
+                           Duration minTimeToDeadline,
+                           Duration maxTimeToDeadline) {
+
+    public boolean matches(TaskStatus status, Duration timeToDeadline) {
+        return (statuses.isEmpty() || statuses.contains(status))
+                && (minTimeToDeadline == null || timeToDeadline.compareTo(minTimeToDeadline) >= 0)
+                && (maxTimeToDeadline == null || timeToDeadline.compareTo(maxTimeToDeadline) <= 0);
+    }
+}
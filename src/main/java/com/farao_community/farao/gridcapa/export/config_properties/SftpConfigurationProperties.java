@@ -7,6 +7,9 @@
 package com.farao_community.farao.gridcapa.export.config_properties;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
 
 /**
  * @author Oualid Aloui {@literal <oualid.aloui at rte-france.com>}
@@ -20,13 +23,35 @@ public class SftpConfigurationProperties {
     private final int port;
     private final String accessKey;
     private final String secretKey;
+    private final ConnectionPoolProperties pool;
+    private final int channelsPerSession;
+    private final int retryCount;
+    private final int retrySleep;
+    private final int unzipChannels;
+    private final ThrottleProperties throttle;
+    private final CircuitBreakerProperties circuitBreaker;
+    private final int retryMaxSleep;
+    private final Duration connectTimeout;
 
-    public SftpConfigurationProperties(String host, int port, String accessKey, String secretKey, String remoteRelativeDestinationDirectory) {
+    public SftpConfigurationProperties(String host, int port, String accessKey, String secretKey, String remoteRelativeDestinationDirectory,
+                                       @DefaultValue ConnectionPoolProperties pool, @DefaultValue("4") int channelsPerSession,
+                                       @DefaultValue("3") int retryCount, @DefaultValue("5") int retrySleep, @DefaultValue("4") int unzipChannels,
+                                       @DefaultValue ThrottleProperties throttle, @DefaultValue CircuitBreakerProperties circuitBreaker,
+                                       @DefaultValue("60") int retryMaxSleep, @DefaultValue("PT30S") Duration connectTimeout) {
         this.remoteRelativeDestinationDirectory = remoteRelativeDestinationDirectory;
         this.host = host;
         this.port = port;
         this.accessKey = accessKey;
         this.secretKey = secretKey;
+        this.pool = pool;
+        this.channelsPerSession = channelsPerSession;
+        this.retryCount = retryCount;
+        this.retrySleep = retrySleep;
+        this.unzipChannels = unzipChannels;
+        this.throttle = throttle;
+        this.circuitBreaker = circuitBreaker;
+        this.retryMaxSleep = retryMaxSleep;
+        this.connectTimeout = connectTimeout;
     }
 
     public String getRemoteRelativeDestinationDirectory() {
@@ -49,4 +74,40 @@ public class SftpConfigurationProperties {
         return secretKey;
     }
 
+    public ConnectionPoolProperties getPool() {
+        return pool;
+    }
+
+    public int getChannelsPerSession() {
+        return channelsPerSession;
+    }
+
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    public int getRetrySleep() {
+        return retrySleep;
+    }
+
+    public int getRetryMaxSleep() {
+        return retryMaxSleep;
+    }
+
+    public int getUnzipChannels() {
+        return unzipChannels;
+    }
+
+    public ThrottleProperties getThrottle() {
+        return throttle;
+    }
+
+    public CircuitBreakerProperties getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
 }
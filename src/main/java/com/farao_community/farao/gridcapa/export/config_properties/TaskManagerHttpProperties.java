@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.config_properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * HTTP transport used for all task-manager calls
+ *
+ * @param version HTTP_1_1 for a pooled Apache HttpClient, HTTP_2 for the JDK HttpClient multiplexing requests on HTTP/2
+ *                when the server supports it (connection pool settings do not apply to it)
+ * @param maxConnections maximum number of connections opened at the same time, all routes together
+ * @param maxConnectionsPerRoute maximum number of connections opened at the same time to a same host
+ * @param connectTimeout maximum time to establish a connection
+ * @param readTimeout maximum time without receiving any data from a response
+ * @param connectionRequestTimeout maximum time to wait for a pooled connection when all of them are in use
+ * @param keepAlive idle time after which a pooled connection is closed
+ * @param connectionTimeToLive age after which a pooled connection is closed, even if it is still valid
+ * @param socketBufferSize size of the socket receive buffer, large enough to stream output files efficiently
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@ConfigurationProperties("task-manager.http")
+public record TaskManagerHttpProperties(@DefaultValue("HTTP_1_1") HttpClient.Version version,
+                                        @DefaultValue("64") int maxConnections,
+                                        @DefaultValue("16") int maxConnectionsPerRoute,
+                                        @DefaultValue("PT5S") Duration connectTimeout,
+                                        @DefaultValue("PT1M") Duration readTimeout,
+                                        @DefaultValue("PT30S") Duration connectionRequestTimeout,
+                                        @DefaultValue("PT1M") Duration keepAlive,
+                                        @DefaultValue("PT30M") Duration connectionTimeToLive,
+                                        @DefaultValue("256KB") DataSize socketBufferSize) {
+}
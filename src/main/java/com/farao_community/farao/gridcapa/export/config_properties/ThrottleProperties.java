@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.config_properties;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Limits of the transfers to a remote destination, not limited when unset
+ *
+ * @param bandwidth bytes sent per second at most to the destination, shared by all its transfers
+ * @param burst bytes sent at most ahead of the bandwidth after an idle period, and read at once by a throttled transfer
+ * @param maxConcurrentTransfers transfers to the destination at the same time at most, an unzipped archive counting as one
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public record ThrottleProperties(DataSize bandwidth,
+                                 @DefaultValue("64KB") DataSize burst,
+                                 @DefaultValue("0") int maxConcurrentTransfers) {
+
+    public static ThrottleProperties unlimited() {
+        return new ThrottleProperties(null, DataSize.ofKilobytes(64), 0);
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.exception;
+
+import java.util.List;
+
+/**
+ * A file delivered to several destinations did not reach some of them, the others having received it
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public class DestinationsUploadException extends ClientAdapterException {
+
+    private final List<String> failedDestinations;
+
+    public DestinationsUploadException(String fileName, List<String> failedDestinations) {
+        super(String.format("Upload of file %s failed for destinations %s", fileName, failedDestinations));
+        this.failedDestinations = List.copyOf(failedDestinations);
+    }
+
+    /**
+     * @return names of the destinations which did not get the file
+     */
+    public List<String> getFailedDestinations() {
+        return failedDestinations;
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.exception;
+
+/**
+ * No pooled connection became available within the borrow timeout, all of them being in use. Unlike a failure to
+ * connect, it says nothing about the health of the destination.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public class PoolExhaustedException extends Exception {
+
+    public PoolExhaustedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.health;
+
+import com.farao_community.farao.gridcapa.export.exception.PoolExhaustedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Health of a destination checked in background every export.health.refresh-interval, so that actuator probes are
+ * served from the last result and never open connections themselves. A result older than maxStaleness, when checks
+ * are stuck or keep failing to complete, is reported down. A check finding all the pooled connections busy with
+ * uploads says nothing about the destination, and is reported unknown. The round-trip latency of the last check and
+ * the outcome of the last upload to the destination are given as details.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public abstract class AbstractCachedHealthIndicator implements HealthIndicator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractCachedHealthIndicator.class);
+
+    private final UploadOutcomes uploadOutcomes;
+    private final Duration maxStaleness;
+    private volatile CheckResult lastCheck;
+
+    protected AbstractCachedHealthIndicator(UploadOutcomes uploadOutcomes, Duration maxStaleness) {
+        this.uploadOutcomes = uploadOutcomes;
+        this.maxStaleness = maxStaleness;
+    }
+
+    /**
+     * @return a description of the checked destination, the same as the one of its client adapter
+     */
+    protected abstract String getDestination();
+
+    /**
+     * @return true when the destination can be uploaded to
+     * @throws PoolExhaustedException when no pooled connection could be borrowed for the check
+     */
+    protected abstract boolean check() throws Exception; // NOSONAR pools only declare Exception
+
+    @Scheduled(fixedDelayString = "${export.health.refresh-interval:PT30S}")
+    public void refresh() {
+        long checkStartNanos = System.nanoTime();
+        Status status;
+        String error = null;
+        try {
+            status = check() ? Status.UP : Status.DOWN;
+        } catch (PoolExhaustedException e) {
+            LOGGER.info("Health check of {} skipped, connection pool busy: {}", getDestination(), e.getMessage());
+            status = Status.UNKNOWN;
+            error = "connection pool busy";
+        } catch (Exception e) {
+            LOGGER.warn("Health check of {} failed: {}", getDestination(), e.getMessage());
+            status = Status.DOWN;
+            error = e.getMessage();
+        }
+        lastCheck = new CheckResult(status, error, Duration.ofNanos(System.nanoTime() - checkStartNanos), Instant.now());
+    }
+
+    @Override
+    public Health health() {
+        CheckResult check = lastCheck;
+        Health.Builder builder;
+        if (check == null) {
+            builder = Health.unknown().withDetail("reason", "not checked yet");
+        } else {
+            boolean stale = Duration.between(check.checkedAt(), Instant.now()).compareTo(maxStaleness) > 0;
+            builder = stale ? Health.down() : Health.status(check.status());
+            builder.withDetail("checkedAt", check.checkedAt())
+                    .withDetail("latencyMillis", check.latency().toMillis());
+            if (stale) {
+                builder.withDetail("stale", true);
+            }
+            if (check.error() != null) {
+                builder.withDetail("error", check.error());
+            }
+        }
+        uploadOutcomes.getLastOutcome(getDestination()).ifPresent(outcome -> builder
+                .withDetail("lastUpload", outcome.success() ? "success" : "failure")
+                .withDetail("lastUploadAt", outcome.completedAt()));
+        return builder.build();
+    }
+
+    private record CheckResult(Status status, String error, Duration latency, Instant checkedAt) {
+    }
+}
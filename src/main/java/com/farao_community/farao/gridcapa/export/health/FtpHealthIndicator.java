@@ -6,53 +6,53 @@
  */
 package com.farao_community.farao.gridcapa.export.health;
 
+import com.farao_community.farao.gridcapa.export.adapter.FtpClientPool;
+import com.farao_community.farao.gridcapa.export.adapter.FtpDestination;
+import com.farao_community.farao.gridcapa.export.adapter.PooledFtpClient;
 import com.farao_community.farao.gridcapa.export.config_properties.FtpConfigurationProperties;
-import org.apache.commons.net.ftp.FTPClient;
-import org.apache.commons.net.ftp.FTPReply;
-import org.springframework.boot.actuate.health.Health;
-import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
+import java.time.Duration;
 
 /**
+ * Checked with a NOOP over a pooled connection, borrowing it having already moved it to the destination directory
+ *
  * @author Vincent Bochet {@literal <vincent.bochet at rte-france.com>}
  */
 @Component
 @ConditionalOnProperty(prefix = "ftp", name = "active", havingValue = "true")
-public class FtpHealthIndicator implements HealthIndicator {
-
-    private final FtpConfigurationProperties ftpConfig;
+public class FtpHealthIndicator extends AbstractCachedHealthIndicator {
+
+    private final FtpDestination destination;
+    private final FtpClientPool ftpClientPool;
+    private final Duration borrowTimeout;
+
+    public FtpHealthIndicator(FtpConfigurationProperties ftpConfig, FtpClientPool ftpClientPool, UploadOutcomes uploadOutcomes,
+                              @Value("${export.health.max-staleness:PT2M}") Duration maxStaleness,
+                              @Value("${export.health.borrow-timeout:PT5S}") Duration borrowTimeout) {
+        super(uploadOutcomes, maxStaleness);
+        this.destination = FtpDestination.of(ftpConfig);
+        this.ftpClientPool = ftpClientPool;
+        this.borrowTimeout = borrowTimeout;
+    }
 
-    public FtpHealthIndicator(FtpConfigurationProperties ftpConfig) {
-        this.ftpConfig = ftpConfig;
+    @Override
+    protected String getDestination() {
+        return "ftp://" + destination;
     }
 
     @Override
-    public Health health() {
-        FTPClient ftp = new FTPClient();
+    protected boolean check() throws Exception { // NOSONAR commons-pool only declares Exception
+        PooledFtpClient ftp = ftpClientPool.borrow(destination, borrowTimeout);
+        boolean reusable = false;
         try {
-            ftp.connect(ftpConfig.getHost(), ftpConfig.getPort());
-
-            if (FTPReply.isPositiveCompletion(ftp.getReplyCode())) {
-                ftp.login(ftpConfig.getAccessKey(), ftpConfig.getSecretKey());
-                ftp.enterLocalPassiveMode();
-                boolean directoryExists = ftp.changeWorkingDirectory(ftpConfig.getRemoteRelativeDestinationDirectory());
-
-                if (directoryExists) {
-                    return Health.up().build();
-                }
-            }
-        } catch (IOException e) {
-            return Health.down().build();
+            boolean up = ftp.sendNoOp();
+            reusable = true;
+            return up;
         } finally {
-            try {
-                ftp.disconnect();
-            } catch (IOException e) {
-                // nothing to do
-            }
+            ftpClientPool.release(destination, ftp, reusable);
         }
-        return Health.down().build();
     }
 }
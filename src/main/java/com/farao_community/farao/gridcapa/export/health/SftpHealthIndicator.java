@@ -6,62 +6,58 @@
  */
 package com.farao_community.farao.gridcapa.export.health;
 
+import com.farao_community.farao.gridcapa.export.adapter.SftpChannelPool;
+import com.farao_community.farao.gridcapa.export.adapter.SftpDestination;
 import com.farao_community.farao.gridcapa.export.config_properties.SftpConfigurationProperties;
 import com.jcraft.jsch.ChannelSftp;
-import com.jcraft.jsch.JSch;
-import com.jcraft.jsch.Session;
-import com.jcraft.jsch.SftpATTRS;
-import org.springframework.boot.actuate.health.Health;
-import org.springframework.boot.actuate.health.HealthIndicator;
+import com.jcraft.jsch.SftpException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 /**
+ * Checked with a stat of the destination directory over a pooled channel
+ *
  * @author Vincent Bochet {@literal <vincent.bochet at rte-france.com>}
  */
 @Component
 @ConditionalOnProperty(prefix = "sftp", name = "active", havingValue = "true")
-public class SftpHealthIndicator implements HealthIndicator {
-
-    private final SftpConfigurationProperties sftpConfig;
-
-    public SftpHealthIndicator(SftpConfigurationProperties sftpConfig) {
-        this.sftpConfig = sftpConfig;
+public class SftpHealthIndicator extends AbstractCachedHealthIndicator {
+
+    private final SftpDestination destination;
+    private final SftpChannelPool sftpChannelPool;
+    private final Duration borrowTimeout;
+
+    public SftpHealthIndicator(SftpConfigurationProperties sftpConfig, SftpChannelPool sftpChannelPool, UploadOutcomes uploadOutcomes,
+                               @Value("${export.health.max-staleness:PT2M}") Duration maxStaleness,
+                               @Value("${export.health.borrow-timeout:PT5S}") Duration borrowTimeout) {
+        super(uploadOutcomes, maxStaleness);
+        this.destination = SftpDestination.of(sftpConfig);
+        this.sftpChannelPool = sftpChannelPool;
+        this.borrowTimeout = borrowTimeout;
     }
 
     @Override
-    public Health health() {
-        Session jschSession = null;
-        ChannelSftp channelSftp = null;
+    protected String getDestination() {
+        return "sftp://" + destination;
+    }
 
+    @Override
+    protected boolean check() throws Exception { // NOSONAR commons-pool only declares Exception
+        ChannelSftp channelSftp = sftpChannelPool.borrow(destination, borrowTimeout);
+        boolean reusable = false;
         try {
-            jschSession = new JSch().getSession(sftpConfig.getAccessKey(), sftpConfig.getHost(), sftpConfig.getPort());
-            jschSession.setPassword(sftpConfig.getSecretKey());
-            jschSession.setConfig("StrictHostKeyChecking", "no");
-            jschSession.connect();
-
-            channelSftp = (ChannelSftp) jschSession.openChannel("sftp");
-            channelSftp.connect();
-
-            SftpATTRS stat = channelSftp.stat(sftpConfig.getRemoteRelativeDestinationDirectory());
-            if (stat != null) {
-                return Health.up().build();
-            }
-        } catch (Exception e) {
-            return Health.down().build();
+            boolean up = channelSftp.stat(destination.remoteRelativeDestinationDirectory()).isDir();
+            reusable = true;
+            return up;
+        } catch (SftpException e) {
+            // a failure reported by the server leaves the channel usable, unlike a broken connection
+            reusable = channelSftp.isConnected();
+            throw e;
         } finally {
-            try {
-                channelSftp.disconnect();
-            } catch (Exception e) {
-                // nothing to do
-            }
-
-            try {
-                jschSession.disconnect();
-            } catch (Exception e) {
-                // nothing to do
-            }
+            sftpChannelPool.release(destination, channelSftp, reusable);
         }
-        return Health.down().build();
     }
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.health;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outcome of the last upload to each destination, reported by health indicators along with their own checks
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@Component
+public class UploadOutcomes {
+
+    private final Map<String, UploadOutcome> lastOutcomes = new ConcurrentHashMap<>();
+
+    public record UploadOutcome(boolean success, Instant completedAt) {
+    }
+
+    /**
+     * @param destination as described by the client adapter
+     */
+    public void record(String destination, boolean success) {
+        lastOutcomes.put(destination, new UploadOutcome(success, Instant.now()));
+    }
+
+    public Optional<UploadOutcome> getLastOutcome(String destination) {
+        return Optional.ofNullable(lastOutcomes.get(destination));
+    }
+}
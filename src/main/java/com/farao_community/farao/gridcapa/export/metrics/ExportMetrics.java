@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters of every stage of an export, from the wait for outputs to the upload of each file, tagged by file type and
+ * destination where relevant. All of them are prefixed by gridcapa.export and exposed through the actuator.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@Component
+public class ExportMetrics {
+
+    public static final String UNKNOWN = "unknown";
+    private static final String PREFIX = "gridcapa.export.";
+    private static final String FILE_TYPE_TAG = "file.type";
+    private static final String DESTINATION_TAG = "destination";
+    private static final String ADAPTER_TAG = "adapter";
+    private static final String OUTCOME_TAG = "outcome";
+    private static final String BYTES = "bytes";
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlightExports = new AtomicInteger();
+
+    public ExportMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder(PREFIX + "in.flight", inFlightExports, AtomicInteger::get)
+                .description("Task updates being exported, from the wait for their outputs to the end of their uploads")
+                .register(meterRegistry);
+    }
+
+    public void exportStarted() {
+        inFlightExports.incrementAndGet();
+    }
+
+    /**
+     * @param timestamp business timestamp of the task, the latency from it is only recorded once it is past
+     * @param receptionDuration time elapsed since the task update was received
+     */
+    public void exportCompleted(OffsetDateTime timestamp, String status, Duration receptionDuration) {
+        inFlightExports.decrementAndGet();
+        Timer.builder(PREFIX + "processing")
+                .description("Time from the reception of a task update to the end of its export")
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(receptionDuration);
+        Duration timestampLatency = Duration.between(timestamp.toInstant(), OffsetDateTime.now().toInstant());
+        if (!timestampLatency.isNegative()) {
+            Timer.builder(PREFIX + "end.to.end")
+                    .description("Time from the task timestamp to the end of its export")
+                    .tag("status", status)
+                    .register(meterRegistry)
+                    .record(timestampLatency);
+        }
+    }
+
+    /**
+     * @param outcome ready when all outputs got validated, deadline when exporting what is available anyway,
+     *                superseded when a newer update took over
+     */
+    public void recordReadinessWait(Duration duration, int polls, String outcome) {
+        Timer.builder(PREFIX + "readiness.wait")
+                .description("Time waiting for all the outputs of a task to be validated")
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry)
+                .record(duration);
+        DistributionSummary.builder(PREFIX + "readiness.polls")
+                .description("Task-manager polls made while waiting for outputs")
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry)
+                .record(polls);
+    }
+
+    /**
+     * @param priorityClass name of the priority class the update was queued in
+     */
+    public void recordQueueWait(String priorityClass, Duration duration) {
+        Timer.builder(PREFIX + "queue.wait")
+                .description("Time a task update waited for its turn to be exported")
+                .tag("priority", priorityClass)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(duration);
+    }
+
+    public void recordDownload(String fileType, Duration duration, long bytes) {
+        Timer.builder(PREFIX + "download")
+                .description("Time to download an output file from task-manager")
+                .tag(FILE_TYPE_TAG, fileType)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(duration);
+        DistributionSummary.builder(PREFIX + "download.bytes")
+                .description("Size of the output files downloaded from task-manager")
+                .baseUnit(BYTES)
+                .tag(FILE_TYPE_TAG, fileType)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    public void recordUpload(String fileType, String destination, Duration duration, long bytes, boolean success) {
+        Timer.builder(PREFIX + "upload")
+                .description("Time to upload an output file to its destination, retries included")
+                .tag(FILE_TYPE_TAG, fileType)
+                .tag(DESTINATION_TAG, destination)
+                .tag(OUTCOME_TAG, outcome(success))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(duration);
+        if (success && !duration.isZero()) {
+            DistributionSummary.builder(PREFIX + "upload.throughput")
+                    .description("Upload rate of output files")
+                    .baseUnit("bytes.per.second")
+                    .tag(FILE_TYPE_TAG, fileType)
+                    .tag(DESTINATION_TAG, destination)
+                    .register(meterRegistry)
+                    .record(bytes * 1e9 / duration.toNanos());
+        }
+    }
+
+    /**
+     * @param destination name of a fan-out destination
+     */
+    public void recordDestinationUpload(String destination, boolean success) {
+        Counter.builder(PREFIX + "destination.uploads")
+                .description("Files delivered to each fan-out destination, or given up for it")
+                .tag(DESTINATION_TAG, destination)
+                .tag(OUTCOME_TAG, outcome(success))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordUploadRetry(String adapter, String destination) {
+        adapterCounter("upload.retries", "Upload attempts made after a failed one", adapter, destination).increment();
+    }
+
+    public void recordUploadFailure(String adapter, String destination) {
+        adapterCounter("upload.failures", "Uploads given up after all retries", adapter, destination).increment();
+    }
+
+    /**
+     * @param limit bandwidth when waiting for bytes to send, concurrency when waiting for a transfer slot
+     */
+    public void recordThrottleWait(String adapter, String destination, String limit, Duration duration) {
+        Timer.builder(PREFIX + "throttle.wait")
+                .description("Time transfers were held back by the limits of their destination")
+                .tag(ADAPTER_TAG, adapter)
+                .tag(DESTINATION_TAG, destination)
+                .tag("limit", limit)
+                .register(meterRegistry)
+                .record(duration);
+    }
+
+    /**
+     * @param state new state of the circuit breaker of the destination: open, half_open or closed
+     */
+    public void recordCircuitTransition(String adapter, String destination, String state) {
+        Counter.builder(PREFIX + "circuit.transitions")
+                .description("State changes of the circuit breakers of destinations")
+                .tag(ADAPTER_TAG, adapter)
+                .tag(DESTINATION_TAG, destination)
+                .tag("state", state)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordUnzipEntry(String adapter, String destination, boolean success) {
+        Counter.builder(PREFIX + "unzip.entries")
+                .description("Archive entries uploaded one by one")
+                .tag(ADAPTER_TAG, adapter)
+                .tag(DESTINATION_TAG, destination)
+                .tag(OUTCOME_TAG, outcome(success))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordResumedBytes(String adapter, long bytes) {
+        Counter.builder(PREFIX + "upload.resumed.bytes")
+                .description("Bytes not sent again thanks to upload resume")
+                .baseUnit(BYTES)
+                .tag(ADAPTER_TAG, adapter)
+                .register(meterRegistry)
+                .increment(bytes);
+    }
+
+    public void recordResentBytes(String adapter, long bytes) {
+        Counter.builder(PREFIX + "upload.resent.bytes")
+                .description("Bytes sent again by a retry because the server did not keep them")
+                .baseUnit(BYTES)
+                .tag(ADAPTER_TAG, adapter)
+                .register(meterRegistry)
+                .increment(bytes);
+    }
+
+    private static String outcome(boolean success) {
+        return success ? "success" : "failure";
+    }
+
+    private Counter adapterCounter(String name, String description, String adapter, String destination) {
+        return Counter.builder(PREFIX + name)
+                .description(description)
+                .tag(ADAPTER_TAG, adapter)
+                .tag(DESTINATION_TAG, destination)
+                .register(meterRegistry);
+    }
+}
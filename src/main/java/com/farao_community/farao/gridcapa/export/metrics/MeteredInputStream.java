@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read from a stream, and remembers when its end was reached (or when it was closed, if before),
+ * so that a download consumed by an upload can be measured on its own
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public class MeteredInputStream extends FilterInputStream {
+
+    private long bytes;
+    private long completedAtNanos;
+
+    public MeteredInputStream(InputStream inputStream) {
+        super(inputStream);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int read = super.read();
+        if (read == -1) {
+            complete();
+        } else {
+            bytes++;
+        }
+        return read;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read == -1) {
+            complete();
+        } else {
+            bytes += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        bytes += skipped;
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        complete();
+        super.close();
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return value of System.nanoTime() when the end of the stream was reached, or now if not reached yet
+     */
+    public long getCompletedAtNanos() {
+        return completedAtNanos != 0 ? completedAtNanos : System.nanoTime();
+    }
+
+    private void complete() {
+        if (completedAtNanos == 0) {
+            completedAtNanos = System.nanoTime();
+        }
+    }
+}
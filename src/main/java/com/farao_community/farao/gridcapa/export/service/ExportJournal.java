@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.service;
+
+import com.farao_community.farao.gridcapa.export.config.JournalConfiguration;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only journal of the exports in progress, memory-mapped so that appending costs no system call. A received
+ * task update is journaled, and flushed to storage, before it is queued, then its stage is appended as it progresses,
+ * and its end once handled whatever the outcome. On startup, the updates whose end was never journaled are recovered
+ * to be exported again. Records are [length][type][id][payload], the length being written last, so that a record
+ * torn by a crash reads as the end of the journal. When the file is full, live entries are copied to a new file which
+ * atomically replaces it.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@Component
+public class ExportJournal {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExportJournal.class);
+    private static final byte RECEIVED_RECORD = 1;
+    private static final byte STAGE_RECORD = 2;
+    private static final byte END_RECORD = 3;
+    private static final int RECORD_HEADER_SIZE = Byte.BYTES + Long.BYTES;
+
+    private final boolean enabled;
+    private final Path file;
+    private final long minimumSize;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, JournalEntry> liveEntries = new LinkedHashMap<>();
+    private final Map<Long, Long> journalIdsBySequence = new HashMap<>();
+    private final List<RecoveredExport> recoveredExports = new ArrayList<>();
+    private MappedByteBuffer buffer;
+    private long nextId = 1;
+
+    public ExportJournal(JournalConfiguration journalConfiguration, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.enabled = journalConfiguration.enabled();
+        this.file = enabled ? journalConfiguration.file().toAbsolutePath() : null;
+        this.minimumSize = Math.max(4096, journalConfiguration.size().toBytes());
+        this.objectMapper = objectMapper;
+        Gauge.builder("gridcapa.export.journal.entries", this, ExportJournal::size)
+                .description("Task updates journaled whose export is not over yet")
+                .register(meterRegistry);
+    }
+
+    public enum Stage {
+        RECEIVED,
+        TRANSFERRING
+    }
+
+    /**
+     * Export interrupted by a restart, at the given stage
+     */
+    public record RecoveredExport(long id, TaskDto taskDto, Stage stage) {
+    }
+
+    @PostConstruct
+    void load() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            if (Files.exists(file)) {
+                try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    scan(fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size()));
+                }
+            }
+            compact(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open export journal " + file, e);
+        }
+        liveEntries.forEach((id, entry) -> {
+            try {
+                recoveredExports.add(new RecoveredExport(id, objectMapper.readValue(entry.taskJson(), TaskDto.class), entry.stage()));
+            } catch (IOException e) {
+                LOGGER.warn("Ignoring unreadable entry {} of export journal: {}", id, e.getMessage());
+            }
+        });
+        LOGGER.info("Export journal {} opened, {} interrupted exports to resume", file, recoveredExports.size());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the exports which were not over when the application stopped, in reception order
+     */
+    public List<RecoveredExport> getRecoveredExports() {
+        return List.copyOf(recoveredExports);
+    }
+
+    /**
+     * Journals a received update, durably
+     */
+    public synchronized void append(TaskUpdateConflator.TaskUpdate taskUpdate) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            byte[] taskJson = objectMapper.writeValueAsBytes(taskUpdate.taskDto());
+            long id = nextId++;
+            liveEntries.put(id, new JournalEntry(taskJson, Stage.RECEIVED));
+            journalIdsBySequence.put(taskUpdate.sequence(), id);
+            int position = write(RECEIVED_RECORD, id, taskJson);
+            buffer.force(position, buffer.position() - position);
+        } catch (IOException e) {
+            LOGGER.warn("Could not journal update of timestamp {}, it will not be resumed after a restart: {}", taskUpdate.taskDto().getTimestamp(), e.getMessage());
+        }
+    }
+
+    /**
+     * Takes over the entry of a recovered export for the update resuming it, instead of journaling it again
+     */
+    public synchronized void adopt(TaskUpdateConflator.TaskUpdate taskUpdate, long id) {
+        if (enabled && liveEntries.containsKey(id)) {
+            journalIdsBySequence.put(taskUpdate.sequence(), id);
+        }
+    }
+
+    public synchronized void stage(TaskUpdateConflator.TaskUpdate taskUpdate, Stage stage) {
+        Long id = journalIdsBySequence.get(taskUpdate.sequence());
+        if (id != null) {
+            liveEntries.get(id).setStage(stage);
+            writeQuietly(STAGE_RECORD, id, new byte[]{(byte) stage.ordinal()});
+        }
+    }
+
+    /**
+     * To be called once the update is handled, whatever the outcome
+     */
+    public synchronized void complete(TaskUpdateConflator.TaskUpdate taskUpdate) {
+        Long id = journalIdsBySequence.remove(taskUpdate.sequence());
+        if (id != null) {
+            liveEntries.remove(id);
+            writeQuietly(END_RECORD, id, new byte[0]);
+        }
+    }
+
+    synchronized int size() {
+        return liveEntries.size();
+    }
+
+    private void writeQuietly(byte type, long id, byte[] payload) {
+        try {
+            write(type, id, payload);
+        } catch (IOException e) {
+            // at worst, an export already over is resumed after a restart
+            LOGGER.warn("Could not journal progress of entry {}: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * @return position of the record written
+     */
+    private int write(byte type, long id, byte[] payload) throws IOException {
+        int recordLength = RECORD_HEADER_SIZE + payload.length;
+        if (buffer.remaining() < Integer.BYTES + recordLength) {
+            compact(Integer.BYTES + recordLength);
+        }
+        int position = buffer.position();
+        buffer.put(position + Integer.BYTES, type);
+        buffer.putLong(position + Integer.BYTES + Byte.BYTES, id);
+        buffer.put(position + Integer.BYTES + RECORD_HEADER_SIZE, payload);
+        buffer.putInt(position, recordLength);
+        buffer.position(position + Integer.BYTES + recordLength);
+        return position;
+    }
+
+    private void scan(MappedByteBuffer journal) {
+        int position = 0;
+        while (journal.limit() - position >= Integer.BYTES) {
+            int recordLength = journal.getInt(position);
+            if (recordLength < RECORD_HEADER_SIZE || journal.limit() - position - Integer.BYTES < recordLength) {
+                break;
+            }
+            byte type = journal.get(position + Integer.BYTES);
+            long id = journal.getLong(position + Integer.BYTES + Byte.BYTES);
+            int payloadPosition = position + Integer.BYTES + RECORD_HEADER_SIZE;
+            switch (type) {
+                case RECEIVED_RECORD -> {
+                    byte[] taskJson = new byte[recordLength - RECORD_HEADER_SIZE];
+                    journal.get(payloadPosition, taskJson);
+                    liveEntries.put(id, new JournalEntry(taskJson, Stage.RECEIVED));
+                }
+                case STAGE_RECORD -> {
+                    JournalEntry entry = liveEntries.get(id);
+                    if (entry != null) {
+                        entry.setStage(Stage.values()[journal.get(payloadPosition)]);
+                    }
+                }
+                case END_RECORD -> liveEntries.remove(id);
+                default -> LOGGER.warn("Unknown record type {} in export journal", type);
+            }
+            nextId = Math.max(nextId, id + 1);
+            position += Integer.BYTES + recordLength;
+        }
+    }
+
+    /**
+     * Copies the live entries to a new file, big enough for them and the given extra bytes, which replaces the journal
+     */
+    private void compact(int extraBytes) throws IOException {
+        long liveBytes = liveEntries.values().stream()
+                .mapToLong(entry -> 2L * Integer.BYTES + 2L * RECORD_HEADER_SIZE + 1 + entry.taskJson().length)
+                .sum();
+        long size = Math.max(minimumSize, 2 * (liveBytes + extraBytes));
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Export journal cannot grow beyond 2GB");
+        }
+        Path compactedFile = file.resolveSibling(file.getFileName() + ".compacted");
+        try (FileChannel fileChannel = FileChannel.open(compactedFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        for (Map.Entry<Long, JournalEntry> liveEntry : liveEntries.entrySet()) {
+            write(RECEIVED_RECORD, liveEntry.getKey(), liveEntry.getValue().taskJson());
+            if (liveEntry.getValue().stage() != Stage.RECEIVED) {
+                write(STAGE_RECORD, liveEntry.getKey(), new byte[]{(byte) liveEntry.getValue().stage().ordinal()});
+            }
+        }
+        buffer.force();
+        Files.move(compactedFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        LOGGER.debug("Export journal compacted, {} live entries in {} bytes", liveEntries.size(), size);
+    }
+
+    private static final class JournalEntry {
+        private final byte[] taskJson;
+        private Stage stage;
+
+        private JournalEntry(byte[] taskJson, Stage stage) {
+            this.taskJson = taskJson;
+            this.stage = stage;
+        }
+
+        private byte[] taskJson() {
+            return taskJson;
+        }
+
+        private Stage stage() {
+            return stage;
+        }
+
+        private void setStage(Stage stage) {
+            this.stage = stage;
+        }
+    }
+}
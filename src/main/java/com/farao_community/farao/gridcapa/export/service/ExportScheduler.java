@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.service;
+
+import com.farao_community.farao.gridcapa.export.config.PriorityConfiguration;
+import com.farao_community.farao.gridcapa.export.config_properties.PriorityRule;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs at most maxConcurrency exports at a time, picking the next one from FIFO queues of priority classes, the most
+ * urgent class first, with updates promoted one class up for every ageing interval they waited. Updates of a timestamp
+ * are never exported concurrently, and always in reception order.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@Component
+public class ExportScheduler {
+
+    static final String DEFAULT_CLASS = "default";
+
+    private final List<PriorityRule> rules;
+    private final Duration deliveryLeadTime;
+    private final long ageingIntervalNanos;
+    private final int maxConcurrency;
+    private final ExportMetrics exportMetrics;
+    private final List<ArrayDeque<PendingExport>> queues = new ArrayList<>();
+    private final Set<OffsetDateTime> exportingTimestamps = new HashSet<>();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private int runningExports;
+
+    public ExportScheduler(PriorityConfiguration priorityConfiguration, ExportMetrics exportMetrics,
+                           @Value("${export.task-processing.max-concurrency:4}") int maxConcurrency) {
+        this.rules = priorityConfiguration.rules();
+        this.deliveryLeadTime = priorityConfiguration.deliveryLeadTime();
+        this.ageingIntervalNanos = Math.max(1, priorityConfiguration.ageingInterval().toNanos());
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.exportMetrics = exportMetrics;
+        for (int i = 0; i <= rules.size(); i++) {
+            queues.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * @return completes once the export of this update, queued until its turn comes, is over
+     */
+    public Mono<Void> schedule(TaskUpdateConflator.TaskUpdate taskUpdate, Function<TaskUpdateConflator.TaskUpdate, Mono<Void>> export) {
+        return Mono.create(sink -> {
+            PendingExport pendingExport = new PendingExport(taskUpdate, classify(taskUpdate.taskDto()), System.nanoTime(), export, sink);
+            synchronized (this) {
+                queues.get(pendingExport.priorityClass()).add(pendingExport);
+            }
+            drain();
+        });
+    }
+
+    /**
+     * @return index of the class of this update, the lower the more urgent
+     */
+    int classify(TaskDto taskDto) {
+        Duration timeToDeadline = Duration.between(OffsetDateTime.now(), taskDto.getTimestamp().minus(deliveryLeadTime));
+        for (int i = 0; i < rules.size(); i++) {
+            if (rules.get(i).matches(taskDto.getStatus(), timeToDeadline)) {
+                return i;
+            }
+        }
+        return rules.size();
+    }
+
+    String className(int priorityClass) {
+        return priorityClass < rules.size() ? rules.get(priorityClass).name() : DEFAULT_CLASS;
+    }
+
+    synchronized int queuedExports() {
+        return queues.stream().mapToInt(ArrayDeque::size).sum();
+    }
+
+    /**
+     * Starts as many exports as allowed. Only one thread drains at a time, the others only request it to drain again,
+     * so that an export completing synchronously does not recurse into the next one.
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            PendingExport next;
+            while ((next = pollNext()) != null) {
+                start(next);
+            }
+        } while (drainRequests.decrementAndGet() != 0);
+    }
+
+    private synchronized PendingExport pollNext() {
+        if (runningExports >= maxConcurrency) {
+            return null;
+        }
+        long now = System.nanoTime();
+        PendingExport best = null;
+        int bestRank = Integer.MAX_VALUE;
+        for (ArrayDeque<PendingExport> queue : queues) {
+            // FIFO per class: the first exportable update of a queue is the only candidate of its class
+            for (PendingExport pendingExport : queue) {
+                if (!exportingTimestamps.contains(pendingExport.timestamp())) {
+                    int rank = pendingExport.rank(now, ageingIntervalNanos);
+                    if (rank < bestRank || rank == bestRank && pendingExport.sequence() < best.sequence()) {
+                        best = pendingExport;
+                        bestRank = rank;
+                    }
+                    break;
+                }
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        best = earliestOfTimestamp(best);
+        queues.get(best.priorityClass()).remove(best);
+        exportingTimestamps.add(best.timestamp());
+        runningExports++;
+        return best;
+    }
+
+    /**
+     * Updates of a timestamp may sit in different classes, the earliest one received goes first
+     */
+    private PendingExport earliestOfTimestamp(PendingExport candidate) {
+        PendingExport earliest = candidate;
+        for (ArrayDeque<PendingExport> queue : queues) {
+            Iterator<PendingExport> iterator = queue.iterator();
+            while (iterator.hasNext()) {
+                PendingExport pendingExport = iterator.next();
+                if (pendingExport.sequence() >= earliest.sequence()) {
+                    break;
+                }
+                if (pendingExport.timestamp().equals(earliest.timestamp())) {
+                    earliest = pendingExport;
+                }
+            }
+        }
+        return earliest;
+    }
+
+    private void start(PendingExport pendingExport) {
+        exportMetrics.recordQueueWait(className(pendingExport.priorityClass()), Duration.ofNanos(System.nanoTime() - pendingExport.queuedAtNanos()));
+        pendingExport.export().apply(pendingExport.taskUpdate())
+                .doFinally(signalType -> {
+                    release(pendingExport);
+                    drain();
+                })
+                .subscribe(null, pendingExport.sink()::error, pendingExport.sink()::success);
+    }
+
+    private synchronized void release(PendingExport pendingExport) {
+        exportingTimestamps.remove(pendingExport.timestamp());
+        runningExports--;
+    }
+
+    private record PendingExport(TaskUpdateConflator.TaskUpdate taskUpdate, int priorityClass, long queuedAtNanos,
+                                 Function<TaskUpdateConflator.TaskUpdate, Mono<Void>> export, MonoSink<Void> sink) {
+
+        private OffsetDateTime timestamp() {
+            return taskUpdate.taskDto().getTimestamp();
+        }
+
+        private long sequence() {
+            return taskUpdate.sequence();
+        }
+
+        private int rank(long nowNanos, long ageingIntervalNanos) {
+            return (int) Math.max(0, priorityClass - (nowNanos - queuedAtNanos) / ageingIntervalNanos);
+        }
+    }
+}
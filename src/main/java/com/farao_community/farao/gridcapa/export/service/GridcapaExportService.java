@@ -7,29 +7,60 @@
 package com.farao_community.farao.gridcapa.export.service;
 
 import com.farao_community.farao.gridcapa.export.adapter.ClientAdapter;
+import com.farao_community.farao.gridcapa.export.adapter.SpooledUploadSource;
+import com.farao_community.farao.gridcapa.export.config.SpoolConfiguration;
 import com.farao_community.farao.gridcapa.export.config.UnzipExportFileConfiguration;
 import com.farao_community.farao.gridcapa.export.exception.ClientAdapterException;
+import com.farao_community.farao.gridcapa.export.exception.DestinationsUploadException;
+import com.farao_community.farao.gridcapa.export.health.UploadOutcomes;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+import com.farao_community.farao.gridcapa.export.metrics.MeteredInputStream;
+import com.farao_community.farao.gridcapa.task_manager.api.ProcessFileDto;
 import com.farao_community.farao.gridcapa.task_manager.api.ProcessFileStatus;
 import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
 import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 /**
  * @author Mohamed Benrejeb {@literal <mohamed.ben-rejeb at rte-france.com>}
@@ -39,9 +70,26 @@ import java.util.function.Consumer;
 public class GridcapaExportService {
 
     public static final String TASKS_PATH = "/tasks/";
-    private final RestTemplate restTemplate;
+    private static final String LOGS_FILE_TYPE = "LOGS";
+    private static final String OUTPUTS_FILE_TYPE = "OUTPUTS";
+    private static final String PACK_FILE_TYPE = "PACK";
+    private static final int PACK_PIPE_SIZE = 1024 * 1024;
+    private static final DateTimeFormatter PACK_NAME_FORMATTER = DateTimeFormatter.ofPattern("'outputs_'yyyyMMdd'T'HHmm'Z.zip'");
+    private static final String TASK_ID_MDC_KEY = "gridcapa-task-id";
+    private static final String READINESS_READY = "ready";
+    private static final String READINESS_DEADLINE = "deadline";
+    private static final String READINESS_SUPERSEDED = "superseded";
+    private final TaskManagerClient taskManagerClient;
     private final ClientAdapter clientAdapter;
     private final Logger businessLogger;
+    private final SpoolConfiguration spoolConfiguration;
+    private final UploadDedupCache uploadDedupCache;
+    private final TaskUpdateConflator taskUpdateConflator;
+    private final ExportMetrics exportMetrics;
+    private final UploadOutcomes uploadOutcomes;
+    private final ExportJournal exportJournal;
+    private final ExportScheduler exportScheduler;
+    private final Sinks.Many<ExportJournal.RecoveredExport> recoveredExports = Sinks.many().unicast().onBackpressureBuffer();
     private static final Logger LOGGER = LoggerFactory.getLogger(GridcapaExportService.class);
 
     @Value("${task-manager.base-url}")
@@ -50,52 +98,299 @@ public class GridcapaExportService {
     private int fetchTaskRetriesNumber;
     @Value("${task-manager.fetch-task.interval-in-seconds}")
     private int fetchTaskIntervalInSeconds;
+    @Value("${task-manager.fetch-task.max-interval-in-seconds:30}")
+    private int fetchTaskMaxIntervalInSeconds;
+    @Value("${task-manager.fetch-task.jitter:0.5}")
+    private double fetchTaskJitter;
+    @Value("${task-manager.fetch-task.deadline-in-seconds:120}")
+    private int fetchTaskDeadlineInSeconds;
     @Value("${export.seperate-output-files:false}")
     private boolean seperateOutputFiles;
+    @Value("${export.pack-output-files:false}")
+    private boolean packOutputFiles;
+    @Value("${export.file-transfer.max-concurrency:4}")
+    private int fileTransferMaxConcurrency;
+    @Value("${export.logs-last:false}")
+    private boolean logsLast;
+    @Value("${export.task-processing.queue-capacity:256}")
+    private int taskProcessingQueueCapacity;
+    @Value("${export.task-processing.max-concurrent-transfers:4}")
+    private int taskProcessingMaxConcurrentTransfers;
+    private Scheduler transferScheduler;
+    private Scheduler transferWorkerScheduler;
     private final List<String> unzipFiles;
 
-    public GridcapaExportService(RestTemplate restTemplate, ClientAdapter clientAdapter, Logger businessLogger, UnzipExportFileConfiguration unzipConfig) {
-        this.restTemplate = restTemplate;
+    public GridcapaExportService(TaskManagerClient taskManagerClient, ClientAdapter clientAdapter, Logger businessLogger, UnzipExportFileConfiguration unzipConfig,
+                                 SpoolConfiguration spoolConfiguration, UploadDedupCache uploadDedupCache, TaskUpdateConflator taskUpdateConflator,
+                                 ExportMetrics exportMetrics, UploadOutcomes uploadOutcomes, ExportJournal exportJournal,
+                                 ExportScheduler exportScheduler) {
+        this.taskManagerClient = taskManagerClient;
         this.clientAdapter = clientAdapter;
         this.businessLogger = businessLogger;
+        this.spoolConfiguration = spoolConfiguration;
+        this.uploadDedupCache = uploadDedupCache;
+        this.taskUpdateConflator = taskUpdateConflator;
+        this.exportMetrics = exportMetrics;
+        this.uploadOutcomes = uploadOutcomes;
+        this.exportJournal = exportJournal;
+        this.exportScheduler = exportScheduler;
         this.unzipFiles = unzipConfig.unzipFiles();
     }
 
+    @PostConstruct
+    void initTransferScheduler() {
+        transferScheduler = Schedulers.newBoundedElastic(Math.max(1, taskProcessingMaxConcurrentTransfers), Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "gridcapa-export-transfer");
+        // files of a task are exported by workers of their own, its transfer thread blocking until they are done
+        transferWorkerScheduler = Schedulers.newBoundedElastic(Math.max(1, taskProcessingMaxConcurrentTransfers) * Math.max(1, fileTransferMaxConcurrency),
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "gridcapa-export-transfer-worker");
+        exportJournal.getRecoveredExports().forEach(recoveredExports::tryEmitNext);
+    }
+
+    @PreDestroy
+    void disposeTransferScheduler() {
+        transferScheduler.dispose();
+        transferWorkerScheduler.dispose();
+    }
+
+    /**
+     * Task updates are handed over to the export scheduler, which exports different timestamps in parallel, the most
+     * urgent ones first, while updates of a same timestamp are always handled in order, one after the other.
+     * At most taskProcessingQueueCapacity updates are requested from the binder ahead of processing.
+     * Updates are registered on reception, so that a queued update already superseded by a newer one for the same
+     * timestamp is dropped when its turn comes.
+     * Finished task updates are journaled on reception, and the ones interrupted by the last stop are scheduled again,
+     * so that an update handed over by the binder is exported even when the application stops before its turn.
+     */
     @Bean
     public Consumer<Flux<TaskDto>> consumeTaskDtoUpdate() {
         return f -> f
                 .onErrorContinue((t, r) -> LOGGER.error(t.getMessage(), t))
-                .subscribe(this::exportOutputsForTask);
+                .map(this::receive)
+                .mergeWith(recoveredExports.asFlux().map(this::resume))
+                .flatMap(taskUpdate -> exportScheduler.schedule(taskUpdate, this::exportOutputsForTask), Math.max(1, taskProcessingQueueCapacity))
+                .subscribe();
     }
 
-    void exportOutputsForTask(TaskDto taskDto) {
-        try {
-            MDC.put("gridcapa-task-id", taskDto.getId().toString());
-            boolean isTaskFinished = taskDto.getStatus().equals(TaskStatus.SUCCESS) || taskDto.getStatus().equals(TaskStatus.ERROR);
-            if (isTaskFinished) {
-                LOGGER.info("Received a task status {} event for timestamp: {}, trying to export result within the configured interval.", taskDto.getStatus(), taskDto.getTimestamp());
-                TaskDto taskDtoUpdated = fetchOutputsAvailable(taskDto);
-                exportValidatedOutputsAndLog(taskDtoUpdated);
+    Mono<Void> exportOutputsForTask(TaskDto taskDto) {
+        return exportOutputsForTask(receive(taskDto));
+    }
+
+    private TaskUpdateConflator.TaskUpdate receive(TaskDto taskDto) {
+        TaskUpdateConflator.TaskUpdate taskUpdate = taskUpdateConflator.register(taskDto);
+        if (isTaskFinished(taskDto)) {
+            exportJournal.append(taskUpdate);
+        }
+        return taskUpdate;
+    }
+
+    private TaskUpdateConflator.TaskUpdate resume(ExportJournal.RecoveredExport recoveredExport) {
+        TaskDto taskDto = recoveredExport.taskDto();
+        runWithTaskContext(taskDto, () -> LOGGER.info("Resuming export of task status {} event for timestamp: {}, interrupted at stage {}.", taskDto.getStatus(), taskDto.getTimestamp(), recoveredExport.stage()));
+        TaskUpdateConflator.TaskUpdate taskUpdate = taskUpdateConflator.register(taskDto);
+        exportJournal.adopt(taskUpdate, recoveredExport.id());
+        return taskUpdate;
+    }
+
+    private static boolean isTaskFinished(TaskDto taskDto) {
+        return taskDto.getStatus().equals(TaskStatus.SUCCESS) || taskDto.getStatus().equals(TaskStatus.ERROR);
+    }
+
+    private Mono<Void> exportOutputsForTask(TaskUpdateConflator.TaskUpdate taskUpdate) {
+        TaskDto taskDto = taskUpdate.taskDto();
+        return Mono.defer(() -> {
+            if (!isTaskFinished(taskDto)) {
+                return Mono.<Void>empty();
             }
-        } catch (Exception e) {
+            if (taskUpdateConflator.isSuperseded(taskUpdate)) {
+                runWithTaskContext(taskDto, () -> LOGGER.info("Dropping task status {} event for timestamp: {}, a newer event was received meanwhile.", taskDto.getStatus(), taskDto.getTimestamp()));
+                return Mono.<Void>empty();
+            }
+            if (taskUpdateConflator.isAlreadyExported(taskDto)) {
+                runWithTaskContext(taskDto, () -> LOGGER.info("Ignoring task status {} event for timestamp: {}, its outputs were already exported.", taskDto.getStatus(), taskDto.getTimestamp()));
+                return Mono.<Void>empty();
+            }
+            runWithTaskContext(taskDto, () -> LOGGER.info("Received a task status {} event for timestamp: {}, trying to export result within the configured interval.", taskDto.getStatus(), taskDto.getTimestamp()));
+            return awaitOutputsAvailable(taskUpdate)
+                    .publishOn(transferScheduler)
+                    .filter(taskDtoUpdated -> !taskUpdateConflator.isSuperseded(taskUpdate))
+                    .flatMap(taskDtoUpdated -> callWithTaskContext(taskDtoUpdated, () -> {
+                        exportJournal.stage(taskUpdate, ExportJournal.Stage.TRANSFERRING);
+                        return exportValidatedOutputsAndLog(taskDtoUpdated);
+                    }))
+                    .filter(Boolean::booleanValue)
+                    .doOnNext(exported -> taskUpdateConflator.markExported(taskDto))
+                    .then()
+                    .doFirst(exportMetrics::exportStarted)
+                    // recorded before completion is signalled downstream, unlike with doFinally
+                    .doOnTerminate(() -> recordExportCompleted(taskUpdate))
+                    .doOnCancel(() -> recordExportCompleted(taskUpdate));
+        }).onErrorResume(e -> {
             //this exeption block avoids gridcapa export from deconnecting from spring cloud stream !
             LOGGER.error(e.getMessage(), e);
+            return Mono.empty();
+        }).doFinally(signalType -> {
+            taskUpdateConflator.complete(taskUpdate);
+            exportJournal.complete(taskUpdate);
+        });
+    }
+
+    private void recordExportCompleted(TaskUpdateConflator.TaskUpdate taskUpdate) {
+        TaskDto taskDto = taskUpdate.taskDto();
+        exportMetrics.exportCompleted(taskDto.getTimestamp(), taskDto.getStatus().name(), Duration.ofNanos(System.nanoTime() - taskUpdate.receivedAtNanos()));
+    }
+
+    private static void runWithTaskContext(TaskDto taskDto, Runnable action) {
+        MDC.put(TASK_ID_MDC_KEY, taskDto.getId().toString());
+        try {
+            action.run();
+        } finally {
+            MDC.remove(TASK_ID_MDC_KEY);
         }
     }
 
-    private void exportValidatedOutputsAndLog(TaskDto taskDto) {
+    /**
+     * Subscribes to the export within the logging context of the task, which the first transfers are made in
+     */
+    private static <T> Mono<T> callWithTaskContext(TaskDto taskDto, Supplier<Mono<T>> export) {
+        return Mono.defer(() -> {
+            MDC.put(TASK_ID_MDC_KEY, taskDto.getId().toString());
+            try {
+                return Mono.fromFuture(export.get().toFuture());
+            } finally {
+                MDC.remove(TASK_ID_MDC_KEY);
+            }
+        });
+    }
+
+    /**
+     * @return true when all the outputs were exported successfully
+     */
+    private Mono<Boolean> exportValidatedOutputsAndLog(TaskDto taskDto) {
         businessLogger.info("Task status {}, exporting results for timestamp: {}", taskDto.getStatus(), taskDto.getTimestamp());
         if (seperateOutputFiles) {
-            taskDto.getOutputs().stream().filter(processFileDto -> processFileDto.getProcessFileStatus().equals(ProcessFileStatus.VALIDATED))
-                    .forEach(processFileDto -> {
-                        ResponseEntity<byte[]> responseEntity = getResponseEntityByFileType(taskDto.getTimestamp(), processFileDto.getFileType());
-                        uploadToFtpFromResponseEntity(responseEntity, mustUnzip(processFileDto.getFileType()));
-                    });
-            ResponseEntity<byte[]> responseEntity = getResponseEntityByFileType(taskDto.getTimestamp(), "LOGS");
-            uploadToFtpFromResponseEntity(responseEntity, false);
+            List<String> fileTypes = new ArrayList<>(taskDto.getOutputs().stream()
+                    .filter(processFileDto -> processFileDto.getProcessFileStatus().equals(ProcessFileStatus.VALIDATED))
+                    .map(ProcessFileDto::getFileType)
+                    .toList());
+            if (packOutputFiles) {
+                fileTypes.add(LOGS_FILE_TYPE);
+                return exportPackedFiles(taskDto.getTimestamp(), fileTypes);
+            }
+            if (logsLast) {
+                return exportFilesConcurrently(taskDto.getTimestamp(), fileTypes)
+                        .flatMap(outputsExported -> exportFilesConcurrently(taskDto.getTimestamp(), List.of(LOGS_FILE_TYPE))
+                                .map(logsExported -> logsExported && outputsExported));
+            } else {
+                fileTypes.add(LOGS_FILE_TYPE);
+                return exportFilesConcurrently(taskDto.getTimestamp(), fileTypes);
+            }
         } else {
-            ResponseEntity<byte[]> responseEntity = getResponseEntity(taskDto.getTimestamp());
-            uploadToFtpFromResponseEntity(responseEntity, false);
+            return Mono.fromFuture(() -> exportFile(taskDto.getTimestamp(), OUTPUTS_FILE_TYPE, getOutputsUrl(taskDto.getTimestamp()), false));
+        }
+    }
+
+    /**
+     * Fetches and uploads the given file types, at most fileTransferMaxConcurrency of them at a time, each one downloaded
+     * by a worker which is not held while its upload waits for a retry.
+     * A failing file is reported on its own and does not prevent the other ones from being exported.
+     */
+    private Mono<Boolean> exportFilesConcurrently(OffsetDateTime timestamp, List<String> fileTypes) {
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        return Flux.fromIterable(fileTypes)
+                .flatMap(fileType -> Mono.fromFuture(() -> exportFileByType(timestamp, fileType, mdcContext))
+                        .subscribeOn(transferWorkerScheduler), Math.max(1, fileTransferMaxConcurrency))
+                .reduce(true, Boolean::logicalAnd);
+    }
+
+    private CompletableFuture<Boolean> exportFileByType(OffsetDateTime timestamp, String fileType, Map<String, String> mdcContext) {
+        if (mdcContext != null) {
+            MDC.setContextMap(mdcContext);
+        }
+        try {
+            return exportFile(timestamp, fileType, getFileUrl(timestamp, fileType), !LOGS_FILE_TYPE.equals(fileType) && mustUnzip(fileType))
+                    .exceptionally(e -> {
+                        businessLogger.error("Exception occurred while exporting file {} for timestamp: {}, details: {}", fileType, timestamp, e.getMessage());
+                        return false;
+                    });
+        } catch (Exception e) {
+            businessLogger.error("Exception occurred while exporting file {} for timestamp: {}, details: {}", fileType, timestamp, e.getMessage());
+            return CompletableFuture.completedFuture(false);
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    /**
+     * Streams the given file types, one after the other, into a single archive uploaded while it is written, so that a
+     * task costs one transfer whatever its number of files. A file that cannot be downloaded is left out of the archive
+     * and reported, while a download failing midway fails the whole archive. Files are always downloaded in full,
+     * even when task-manager reports them unchanged, for the archive to be complete.
+     */
+    private Mono<Boolean> exportPackedFiles(OffsetDateTime timestamp, List<String> fileTypes) {
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        String archiveName = timestamp.atZoneSameInstant(ZoneOffset.UTC).format(PACK_NAME_FORMATTER);
+        try {
+            OutputsPack outputsPack = new OutputsPack(timestamp, PACK_PIPE_SIZE);
+            CompletableFuture<Boolean> packing = Mono.fromCallable(() -> packFiles(timestamp, fileTypes, outputsPack, mdcContext))
+                    .subscribeOn(transferWorkerScheduler)
+                    .toFuture();
+            CompletableFuture<Boolean> uploaded;
+            // closing the archive once read by the upload, or given up, stops the packing of files nobody reads anymore
+            try (MeteredInputStream archive = new MeteredInputStream(outputsPack.archive())) {
+                LOGGER.info("Uploading archive {} of {} files to ftp", archiveName, fileTypes.size());
+                uploaded = uploadAndRecord(PACK_FILE_TYPE, clientAdapter.getDestinations(), clientAdapter.uploadDeferred(archiveName, false, archive), archive::getBytes).toFuture();
+            }
+            return Mono.fromFuture(uploaded)
+                    .flatMap(archiveUploaded -> Mono.fromFuture(packing).map(allPacked -> allPacked && archiveUploaded))
+                    .onErrorResume(e -> {
+                        runWithContext(mdcContext, () -> businessLogger.error("Exception occurred while packing output files for timestamp: {}, details: {}", timestamp, e.getMessage()));
+                        return Mono.just(false);
+                    });
+        } catch (IOException e) {
+            businessLogger.error("Exception occurred while packing output files for timestamp: {}, details: {}", timestamp, e.getMessage());
+            return Mono.just(false);
+        }
+    }
+
+    /**
+     * @return true when every file was added to the archive
+     */
+    private boolean packFiles(OffsetDateTime timestamp, List<String> fileTypes, OutputsPack outputsPack, Map<String, String> mdcContext) {
+        if (mdcContext != null) {
+            MDC.setContextMap(mdcContext);
+        }
+        try (outputsPack) {
+            boolean allPacked = true;
+            for (String fileType : fileTypes) {
+                allPacked = packFile(timestamp, fileType, outputsPack) && allPacked;
+                if (outputsPack.isFailed()) {
+                    return false;
+                }
+            }
+            outputsPack.finish();
+            LOGGER.info("Packed {} files in archive", outputsPack.getPackedFiles().size());
+            return allPacked;
+        } catch (IOException e) {
+            businessLogger.error("Exception occurred while packing output files for timestamp: {}, details: {}", timestamp, e.getMessage());
+            return false;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private boolean packFile(OffsetDateTime timestamp, String fileType, OutputsPack outputsPack) {
+        long downloadStartNanos = System.nanoTime();
+        try {
+            return taskManagerClient.fetchFile(getFileUrl(timestamp, fileType), response -> {
+                try (MeteredInputStream body = new MeteredInputStream(response.getBody())) {
+                    outputsPack.add(fileType, getFileNameFromHeaders(response.getHeaders()), body);
+                    exportMetrics.recordDownload(fileType, Duration.ofNanos(body.getCompletedAtNanos() - downloadStartNanos), body.getBytes());
+                    return true;
+                }
+            });
+        } catch (Exception e) {
+            businessLogger.error("Exception occurred while exporting file {} for timestamp: {}, details: {}", fileType, timestamp, e.getMessage());
+            return false;
         }
     }
 
@@ -103,64 +398,240 @@ public class GridcapaExportService {
         return unzipFiles != null && unzipFiles.contains(fileType);
     }
 
-    private void uploadToFtpFromResponseEntity(ResponseEntity<byte[]> responseEntity, boolean unzip) {
-        String fileOutputName = getFileNameFromResponseEntity(responseEntity);
-        try {
+    /**
+     * Pipes the response body straight into the client adapter, so that download and upload overlap
+     * and the file is never held in memory as a whole.
+     * With deduplication enabled the body is digested while spooled, and not uploaded to a destination which already
+     * got the same file for this timestamp and file type, the destinations which did not being uploaded from that spool.
+     * A file task-manager reports as not modified since its last successful export is not downloaded again.
+     * The response is read once the first upload attempt is over, the returned future completing with later retries, if any.
+     */
+    private CompletableFuture<Boolean> exportFile(OffsetDateTime timestamp, String fileType, String url, boolean unzip) {
+        long downloadStartNanos = System.nanoTime();
+        return taskManagerClient.downloadFile(url, response -> {
+            if (uploadDedupCache.isEnabled()) {
+                return uploadToFtpFromResponseIfChanged(response, timestamp, fileType, unzip, downloadStartNanos);
+            }
+            return uploadToFtpFromResponse(response, fileType, unzip, downloadStartNanos);
+        });
+    }
+
+    private CompletableFuture<Boolean> uploadToFtpFromResponse(ClientHttpResponse response, String fileType, boolean unzip, long downloadStartNanos) throws IOException {
+        String fileOutputName = getFileNameFromHeaders(response.getHeaders());
+        try (MeteredInputStream body = new MeteredInputStream(response.getBody())) {
             LOGGER.info("Uploading file {} to ftp", fileOutputName);
-            clientAdapter.upload(fileOutputName, unzip, new ByteArrayInputStream(Objects.requireNonNull(responseEntity.getBody())));
-        } catch (ClientAdapterException e) {
-            businessLogger.error("Exception occurred while uploading generated results to server, details: {}", e.getMessage());
+            // the body is streamed to the destination, so the download ends with the upload and is part of its time
+            CompletableFuture<Boolean> uploaded = uploadAndRecord(fileType, clientAdapter.getDestinations(), clientAdapter.uploadDeferred(fileOutputName, unzip, body), body::getBytes)
+                    .toFuture();
+            exportMetrics.recordDownload(fileType, Duration.ofNanos(body.getCompletedAtNanos() - downloadStartNanos), body.getBytes());
+            return uploaded;
         }
     }
 
+    private CompletableFuture<Boolean> uploadToFtpFromResponseIfChanged(ClientHttpResponse response, OffsetDateTime timestamp, String fileType, boolean unzip,
+                                                                        long downloadStartNanos) throws IOException {
+        String fileOutputName = getFileNameFromHeaders(response.getHeaders());
+        MessageDigest messageDigest = newMessageDigest();
+        SpooledUploadSource uploadSource;
+        try (MeteredInputStream body = new MeteredInputStream(response.getBody())) {
+            uploadSource = spool(new DigestInputStream(body, messageDigest));
+            exportMetrics.recordDownload(fileType, Duration.ofNanos(body.getCompletedAtNanos() - downloadStartNanos), body.getBytes());
+        }
+        // the name is part of the digest, a same content published under another name is uploaded again
+        messageDigest.update(fileOutputName.getBytes(StandardCharsets.UTF_8));
+        String digest = HexFormat.of().formatHex(messageDigest.digest());
+        Map<String, ClientAdapter> changedDestinations = new LinkedHashMap<>();
+        clientAdapter.getDestinations().forEach((name, destinationAdapter) -> {
+            if (uploadDedupCache.isUnchanged(UploadDedupCache.key(timestamp, fileType, name), digest)) {
+                LOGGER.info("File {} is identical to the one already uploaded to {}, skipping upload", fileOutputName, name);
+                uploadDedupCache.recordSkippedUpload(uploadSource.size());
+            } else {
+                changedDestinations.put(name, destinationAdapter);
+            }
+        });
+        if (changedDestinations.isEmpty()) {
+            release(uploadSource);
+            return CompletableFuture.completedFuture(true);
+        }
+        LOGGER.info("Uploading file {} to ftp", fileOutputName);
+        // destinations are uploaded from the spool in parallel, which outlives the response until their retries are over
+        List<Mono<Boolean>> uploads = new ArrayList<>();
+        changedDestinations.forEach((name, destinationAdapter) -> {
+            String dedupKey = UploadDedupCache.key(timestamp, fileType, name);
+            Mono<Boolean> upload = uploadAndRecord(fileType, Map.of(name, destinationAdapter), destinationAdapter.uploadSpooled(fileOutputName, unzip, uploadSource), uploadSource::size)
+                    .doOnNext(uploaded -> {
+                        if (Boolean.TRUE.equals(uploaded)) {
+                            uploadDedupCache.record(dedupKey, digest);
+                        }
+                    });
+            uploads.add(changedDestinations.size() > 1 ? upload.subscribeOn(transferWorkerScheduler) : upload);
+        });
+        return Flux.merge(uploads)
+                .all(Boolean::booleanValue)
+                .doFinally(signalType -> release(uploadSource))
+                .toFuture();
+    }
+
     /**
-     * Sometimes the files are not validated immediately with task status update, we retry to fetch task
+     * @return the whole content, read once
      */
-    private TaskDto fetchOutputsAvailable(TaskDto taskDto) {
-        LOGGER.info("Received a task status {} event for timestamp: {}, trying to fetch result within the configured interval.", taskDto.getStatus(), taskDto.getTimestamp());
-        TaskDto updatedTaskDto;
-        boolean allOutputsAvailable = checkAllOutputFileValidated(taskDto);
-        int retryCounter = 0;
-        do {
-            try {
-                TimeUnit.SECONDS.sleep(fetchTaskIntervalInSeconds);
-                LOGGER.info("Fetching outputs for iteration number {}", retryCounter);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                LOGGER.error("Couldn't interrupt thread : {}", e.getMessage());
+    private SpooledUploadSource spool(InputStream content) throws IOException {
+        SpooledUploadSource uploadSource = new SpooledUploadSource(content, spoolConfiguration);
+        try (InputStream firstPass = uploadSource.open()) {
+            firstPass.transferTo(OutputStream.nullOutputStream());
+            return uploadSource;
+        } catch (IOException e) {
+            release(uploadSource);
+            throw e;
+        }
+    }
+
+    private static void release(SpooledUploadSource uploadSource) {
+        try {
+            uploadSource.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not release spooled content", e);
+        }
+    }
+
+    /**
+     * Records the outcome of the upload for each of the destinations it delivers to, as described by their adapter
+     *
+     * @param destinations adapter of each destination the upload delivers to, by name
+     * @param uploadedBytes bytes read by the upload, once it is over
+     * @return true when every destination got the file
+     */
+    private Mono<Boolean> uploadAndRecord(String fileType, Map<String, ClientAdapter> destinations, Mono<Void> upload, LongSupplier uploadedBytes) {
+        return Mono.defer(() -> {
+            Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+            long uploadStartNanos = System.nanoTime();
+            return upload.thenReturn(List.<String>of())
+                    .onErrorResume(ClientAdapterException.class, e -> {
+                        runWithContext(mdcContext, () -> businessLogger.error("Exception occurred while uploading generated results to server, details: {}", e.getMessage()));
+                        return Mono.just(e instanceof DestinationsUploadException destinationsUploadException
+                                ? destinationsUploadException.getFailedDestinations()
+                                : List.copyOf(destinations.keySet()));
+                    })
+                    .map(failedDestinations -> {
+                        Duration uploadDuration = Duration.ofNanos(System.nanoTime() - uploadStartNanos);
+                        destinations.forEach((name, destinationAdapter) -> {
+                            String destination = Objects.requireNonNullElse(destinationAdapter.getDestination(), ExportMetrics.UNKNOWN);
+                            boolean uploaded = !failedDestinations.contains(name);
+                            exportMetrics.recordUpload(fileType, destination, uploadDuration, uploadedBytes.getAsLong(), uploaded);
+                            uploadOutcomes.record(destination, uploaded);
+                        });
+                        return failedDestinations.isEmpty();
+                    });
+        });
+    }
+
+    /**
+     * Runs an action, on whatever thread the upload completed, within the logging context of the export
+     */
+    private static void runWithContext(Map<String, String> mdcContext, Runnable action) {
+        Map<String, String> previousContext = MDC.getCopyOfContextMap();
+        if (mdcContext != null) {
+            MDC.setContextMap(mdcContext);
+        }
+        try {
+            action.run();
+        } finally {
+            if (previousContext != null) {
+                MDC.setContextMap(previousContext);
+            } else {
+                MDC.clear();
             }
-            updatedTaskDto = getUpdatedTaskForTimestamp(taskDto.getTimestamp());
-            if (updatedTaskDto != null) {
-                allOutputsAvailable = checkAllOutputFileValidated(updatedTaskDto);
+        }
+    }
+
+    private static MessageDigest newMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Sometimes the files are not validated immediately with task status update, we poll the task until they are.
+     * Polls are spaced by a jittered exponential backoff on the reactor timer so that no thread is held while waiting,
+     * and the latest known task is exported anyway once retries or deadline are exhausted.
+     * Waiting stops without exporting anything as soon as a newer update is received for the timestamp.
+     */
+    private Mono<TaskDto> awaitOutputsAvailable(TaskUpdateConflator.TaskUpdate taskUpdate) {
+        TaskDto taskDto = taskUpdate.taskDto();
+        if (checkAllOutputFileValidated(taskDto)) {
+            exportMetrics.recordReadinessWait(Duration.ZERO, 0, READINESS_READY);
+            return Mono.just(taskDto);
+        }
+        LOGGER.info("Received a task status {} event for timestamp: {}, trying to fetch result within the configured interval.", taskDto.getStatus(), taskDto.getTimestamp());
+        AtomicReference<TaskDto> latestTaskDto = new AtomicReference<>(taskDto);
+        AtomicInteger pollCounter = new AtomicInteger();
+        long waitStartNanos = System.nanoTime();
+        return Mono.fromCallable(() -> {
+            if (taskUpdateConflator.isSuperseded(taskUpdate)) {
+                throw new SupersededUpdateException();
             }
-            retryCounter++;
-        } while (retryCounter < fetchTaskRetriesNumber && !allOutputsAvailable);
-        return updatedTaskDto != null ? updatedTaskDto : taskDto;
+            LOGGER.info("Fetching outputs for iteration number {}", pollCounter.getAndIncrement());
+            return getUpdatedTaskForTimestamp(taskDto.getTimestamp());
+        })
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(latestTaskDto::set)
+                .filter(this::checkAllOutputFileValidated)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Not all outputs are validated yet for timestamp " + taskDto.getTimestamp())))
+                .retryWhen(Retry.backoff(Math.max(0, fetchTaskRetriesNumber - 1L), Duration.ofSeconds(fetchTaskIntervalInSeconds))
+                        .maxBackoff(Duration.ofSeconds(Math.max(fetchTaskIntervalInSeconds, fetchTaskMaxIntervalInSeconds)))
+                        .jitter(fetchTaskJitter)
+                        .filter(e -> !(e instanceof SupersededUpdateException)))
+                .timeout(Duration.ofSeconds(fetchTaskDeadlineInSeconds))
+                .doOnNext(taskDtoUpdated -> recordReadinessWait(waitStartNanos, pollCounter, READINESS_READY))
+                .onErrorResume(SupersededUpdateException.class, e -> {
+                    recordReadinessWait(waitStartNanos, pollCounter, READINESS_SUPERSEDED);
+                    LOGGER.info("Stop waiting for outputs of timestamp {} after {} polls, a newer event was received meanwhile", taskDto.getTimestamp(), pollCounter.get());
+                    return Mono.empty();
+                })
+                .onErrorResume(e -> {
+                    recordReadinessWait(waitStartNanos, pollCounter, READINESS_DEADLINE);
+                    LOGGER.warn("Stop waiting for outputs of timestamp {} after {} polls, exporting the available ones: {}", taskDto.getTimestamp(), pollCounter.get(), e.getMessage());
+                    return Mono.fromSupplier(latestTaskDto::get);
+                });
     }
 
-    ResponseEntity<byte[]> getResponseEntity(OffsetDateTime timestamp) {
-        String outputsRestLocation = UriComponentsBuilder.fromHttpUrl(taskManagerBaseUrl + TASKS_PATH + timestamp + "/outputs").toUriString();
-        return restTemplate.getForEntity(outputsRestLocation, byte[].class);
+    String getOutputsUrl(OffsetDateTime timestamp) {
+        return UriComponentsBuilder.fromHttpUrl(taskManagerBaseUrl + TASKS_PATH + timestamp + "/outputs").toUriString();
     }
 
-    ResponseEntity<byte[]> getResponseEntityByFileType(OffsetDateTime timestamp, String fileType) {
-        String outputsRestLocation = UriComponentsBuilder.fromHttpUrl(taskManagerBaseUrl + TASKS_PATH + timestamp + "/file/" + fileType).toUriString();
-        return restTemplate.getForEntity(outputsRestLocation, byte[].class);
+    String getFileUrl(OffsetDateTime timestamp, String fileType) {
+        return UriComponentsBuilder.fromHttpUrl(taskManagerBaseUrl + TASKS_PATH + timestamp + "/file/" + fileType).toUriString();
     }
 
-    String getFileNameFromResponseEntity(ResponseEntity<byte[]> responseEntity) {
-        String rawFileName = Optional.ofNullable(responseEntity.getHeaders().get("Content-Disposition")).map(at -> at.get(0)).orElse("outputs.zip");
+    String getFileNameFromHeaders(HttpHeaders headers) {
+        String rawFileName = Optional.ofNullable(headers.get("Content-Disposition")).map(at -> at.get(0)).orElse("outputs.zip");
         // filename coming from response entity header is formatted with double-quotes such as "filename="---real_filename---""
         String fileNameHeaderIdentifier = "filename=";
         return rawFileName.substring(rawFileName.lastIndexOf(fileNameHeaderIdentifier) + fileNameHeaderIdentifier.length() + 1, rawFileName.length() - 1);
     }
 
+    private void recordReadinessWait(long waitStartNanos, AtomicInteger pollCounter, String outcome) {
+        exportMetrics.recordReadinessWait(Duration.ofNanos(System.nanoTime() - waitStartNanos), pollCounter.get(), outcome);
+    }
+
     private boolean checkAllOutputFileValidated(TaskDto taskDtoUpdated) {
         return taskDtoUpdated.getOutputs().stream().allMatch(output -> output.getProcessFileStatus().equals(ProcessFileStatus.VALIDATED));
     }
 
     private TaskDto getUpdatedTaskForTimestamp(OffsetDateTime timestamp) {
         String restLocation = UriComponentsBuilder.fromHttpUrl(taskManagerBaseUrl + TASKS_PATH + timestamp).toUriString();
-        return restTemplate.getForEntity(restLocation, TaskDto.class).getBody();
+        return taskManagerClient.fetchTask(restLocation);
+    }
+
+    /**
+     * Signals that waiting for outputs is useless, a newer update being received for the same timestamp
+     */
+    private static final class SupersededUpdateException extends RuntimeException {
+        private SupersededUpdateException() {
+            super("Superseded by a newer update", null, false, false);
+        }
     }
 }
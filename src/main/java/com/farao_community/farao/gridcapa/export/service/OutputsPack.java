@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Zip archive of the output files of a task, written on the fly by one thread while another one uploads it, through
+ * a bounded pipe: file contents are copied from their download into the archive without any temporary copy.
+ * A manifest listing every file with its type, size and digest ends the archive. When writing fails, the upload
+ * reading the archive fails too, instead of receiving a truncated archive.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+final class OutputsPack implements AutoCloseable {
+
+    static final String MANIFEST_ENTRY = "manifest.json";
+    private static final ObjectMapper MANIFEST_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final OffsetDateTime timestamp;
+    private final FailablePipedInputStream archive;
+    private final PipedOutputStream pipedOutputStream;
+    private final ZipOutputStream zipOutputStream;
+    private final List<PackedFile> packedFiles = new ArrayList<>();
+    private final Set<String> entryNames = new HashSet<>();
+    private boolean finished;
+
+    OutputsPack(OffsetDateTime timestamp, int pipeSize) throws IOException {
+        this.timestamp = timestamp;
+        this.archive = new FailablePipedInputStream(pipeSize);
+        this.pipedOutputStream = new PipedOutputStream(archive);
+        this.zipOutputStream = new ZipOutputStream(pipedOutputStream);
+    }
+
+    /**
+     * @return the archive content, to be read by another thread than the one adding files
+     */
+    InputStream archive() {
+        return archive;
+    }
+
+    /**
+     * Copies the whole content in a new entry named after the file, or after its type and name when another file of
+     * the pack has the same name. A failure makes the whole pack fail.
+     */
+    void add(String fileType, String fileName, InputStream content) throws IOException {
+        String entryName = entryNames.contains(fileName) ? fileType.replaceFirst("^/+", "") + "/" + fileName : fileName;
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            zipOutputStream.putNextEntry(new ZipEntry(entryName));
+            long size = new DigestInputStream(content, messageDigest).transferTo(zipOutputStream);
+            zipOutputStream.closeEntry();
+            entryNames.add(entryName);
+            packedFiles.add(new PackedFile(fileType, entryName, size, HexFormat.of().formatHex(messageDigest.digest())));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            fail(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Ends the archive with its manifest
+     */
+    void finish() throws IOException {
+        try {
+            zipOutputStream.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+            zipOutputStream.write(MANIFEST_MAPPER.writeValueAsBytes(new Manifest(timestamp, packedFiles)));
+            zipOutputStream.closeEntry();
+            zipOutputStream.close();
+            finished = true;
+        } catch (IOException e) {
+            fail(e);
+            throw e;
+        }
+    }
+
+    boolean isFailed() {
+        return archive.failure != null;
+    }
+
+    List<PackedFile> getPackedFiles() {
+        return packedFiles;
+    }
+
+    /**
+     * Fails the archive if it was not finished, the reader getting an error once it read what was already written
+     */
+    @Override
+    public void close() {
+        fail(new IOException("Archive of outputs was not completed"));
+    }
+
+    private void fail(IOException failure) {
+        if (!finished && archive.failure == null) {
+            archive.failure = failure;
+            try {
+                // the end of stream wakes up the reader, which then reports the failure. The pipe is closed
+                // without completing the archive, which could block on a reader that stopped reading
+                pipedOutputStream.close();
+            } catch (IOException e) {
+                // already failed
+            }
+        }
+    }
+
+    record PackedFile(String fileType, String fileName, long size, String sha256) {
+    }
+
+    private record Manifest(OffsetDateTime timestamp, List<PackedFile> files) {
+    }
+
+    /**
+     * Reports the failure of the writer in place of the end of stream
+     */
+    private final class FailablePipedInputStream extends PipedInputStream {
+
+        private volatile IOException failure;
+
+        private FailablePipedInputStream(int pipeSize) {
+            super(pipeSize);
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            return checkEndOfStream(super.read());
+        }
+
+        @Override
+        public synchronized int read(byte[] bytes, int offset, int length) throws IOException {
+            return checkEndOfStream(super.read(bytes, offset, length));
+        }
+
+        private int checkEndOfStream(int read) throws IOException {
+            if (read == -1 && failure != null) {
+                throw new IOException("Archive of outputs could not be written", failure);
+            }
+            return read;
+        }
+    }
+}
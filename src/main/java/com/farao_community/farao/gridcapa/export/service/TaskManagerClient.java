@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Conditional GETs to task-manager: the ETag and Last-Modified validators of the last response of each URL are kept
+ * (maxEntries URLs at most, least recently used ones evicted first) and sent back as If-None-Match and If-Modified-Since,
+ * so that an unchanged task or file only costs a 304 Not Modified response. Task JSON is requested gzip compressed.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@Component
+public class TaskManagerClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskManagerClient.class);
+
+    private final RestTemplate restTemplate;
+    private final Map<String, CachedResponse> cachedResponses;
+
+    public TaskManagerClient(RestTemplate restTemplate, @Value("${task-manager.conditional-requests.max-entries:10000}") int maxEntries) {
+        this.restTemplate = restTemplate;
+        int boundedMaxEntries = Math.max(1, maxEntries);
+        this.cachedResponses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > boundedMaxEntries;
+            }
+        };
+    }
+
+    /**
+     * Handles a downloaded file, and tells whether it was processed successfully
+     */
+    @FunctionalInterface
+    public interface FileHandler {
+        boolean handle(ClientHttpResponse response) throws IOException;
+    }
+
+    /**
+     * Handles a downloaded file, which it is done reading when it returns, and tells once it is done with it whether
+     * it was processed successfully
+     */
+    @FunctionalInterface
+    public interface DeferredFileHandler {
+        CompletableFuture<Boolean> handle(ClientHttpResponse response) throws IOException;
+    }
+
+    /**
+     * @return the task at this URL, the previously fetched one when task-manager answers it did not change
+     */
+    public TaskDto fetchTask(String url) {
+        CachedResponse cachedResponse = getCachedResponse(url);
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        addValidators(requestHeaders, cachedResponse);
+        ResponseEntity<TaskDto> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(requestHeaders), TaskDto.class);
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && cachedResponse != null && cachedResponse.task() != null) {
+            LOGGER.debug("Task at {} not modified since last fetch", url);
+            return cachedResponse.task();
+        }
+        putCachedResponse(url, response.getHeaders(), response.getBody());
+        return response.getBody();
+    }
+
+    /**
+     * Passes the file at this URL to the handler, unless task-manager answers it did not change since it was last
+     * handled successfully
+     *
+     * @return completes with true when the file was handled successfully, or did not need to be, once the handler is
+     * done with it
+     */
+    public CompletableFuture<Boolean> downloadFile(String url, DeferredFileHandler fileHandler) {
+        CachedResponse cachedResponse = getCachedResponse(url);
+        CompletableFuture<Boolean> handled = restTemplate.execute(url, HttpMethod.GET, request -> addValidators(request.getHeaders(), cachedResponse), response -> {
+            if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && cachedResponse != null) {
+                LOGGER.info("File at {} not modified since last export, nothing to upload", url);
+                return CompletableFuture.completedFuture(true);
+            }
+            HttpHeaders responseHeaders = new HttpHeaders();
+            responseHeaders.putAll(response.getHeaders());
+            return fileHandler.handle(response).thenApply(success -> {
+                if (Boolean.TRUE.equals(success)) {
+                    putCachedResponse(url, responseHeaders, null);
+                }
+                return Boolean.TRUE.equals(success);
+            });
+        });
+        return handled != null ? handled : CompletableFuture.completedFuture(false);
+    }
+
+    /**
+     * Passes the file at this URL to the handler, whether it changed or not since it was last handled
+     *
+     * @return true when the file was handled successfully
+     */
+    public boolean fetchFile(String url, FileHandler fileHandler) {
+        return Boolean.TRUE.equals(restTemplate.execute(url, HttpMethod.GET, null, fileHandler::handle));
+    }
+
+    private static void addValidators(HttpHeaders requestHeaders, CachedResponse cachedResponse) {
+        if (cachedResponse == null) {
+            return;
+        }
+        if (cachedResponse.eTag() != null) {
+            requestHeaders.set(HttpHeaders.IF_NONE_MATCH, cachedResponse.eTag());
+        }
+        if (cachedResponse.lastModified() != null) {
+            requestHeaders.set(HttpHeaders.IF_MODIFIED_SINCE, cachedResponse.lastModified());
+        }
+    }
+
+    private synchronized CachedResponse getCachedResponse(String url) {
+        return cachedResponses.get(url);
+    }
+
+    private synchronized void putCachedResponse(String url, HttpHeaders responseHeaders, TaskDto task) {
+        String eTag = responseHeaders.getFirst(HttpHeaders.ETAG);
+        String lastModified = responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED);
+        if (eTag == null && lastModified == null) {
+            cachedResponses.remove(url);
+        } else {
+            cachedResponses.put(url, new CachedResponse(eTag, lastModified, task));
+        }
+    }
+
+    private record CachedResponse(String eTag, String lastModified, TaskDto task) {
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.ProcessFileDto;
+import com.farao_community.farao.gridcapa.task_manager.api.ProcessFileStatus;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the latest finished (SUCCESS or ERROR) update received for each timestamp, so that an update
+ * superseded by a newer finished one for the same timestamp is dropped before any I/O, or stops waiting for its
+ * outputs, and leaves the export to the newer one. Updates of a task still running export nothing, and a late one
+ * never cancels the export of a finished task.
+ * Also remembers what was last exported successfully for a timestamp (rememberedExports timestamps at most),
+ * so that a redelivered update identical to it is not exported again.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@Component
+public class TaskUpdateConflator {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<OffsetDateTime, Long> latestSequences = new ConcurrentHashMap<>();
+    private final Map<OffsetDateTime, ExportFingerprint> exportedFingerprints;
+
+    public TaskUpdateConflator(@Value("${export.task-processing.remembered-exports:1024}") int rememberedExports) {
+        int maxEntries = Math.max(1, rememberedExports);
+        this.exportedFingerprints = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<OffsetDateTime, ExportFingerprint> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * An update received for a timestamp, numbered in reception order, with its System.nanoTime() of reception
+     */
+    public record TaskUpdate(TaskDto taskDto, long sequence, long receivedAtNanos) {
+    }
+
+    /**
+     * To be called on reception: a finished update becomes the latest one of its timestamp, superseding the previous ones
+     */
+    public TaskUpdate register(TaskDto taskDto) {
+        TaskUpdate taskUpdate = new TaskUpdate(taskDto, sequence.incrementAndGet(), System.nanoTime());
+        if (isFinished(taskDto)) {
+            latestSequences.merge(taskDto.getTimestamp(), taskUpdate.sequence(), Math::max);
+        }
+        return taskUpdate;
+    }
+
+    /**
+     * The latest update of a timestamp stays registered until it is handled, so an update that is no longer the
+     * registered one was superseded, even if the newer one is already handled
+     */
+    public boolean isSuperseded(TaskUpdate taskUpdate) {
+        Long latestSequence = latestSequences.get(taskUpdate.taskDto().getTimestamp());
+        return latestSequence == null || latestSequence != taskUpdate.sequence();
+    }
+
+    /**
+     * To be called once the update is handled, whatever the outcome
+     */
+    public void complete(TaskUpdate taskUpdate) {
+        latestSequences.remove(taskUpdate.taskDto().getTimestamp(), taskUpdate.sequence());
+    }
+
+    public synchronized boolean isAlreadyExported(TaskDto taskDto) {
+        return ExportFingerprint.of(taskDto).equals(exportedFingerprints.get(taskDto.getTimestamp()));
+    }
+
+    /**
+     * To be called once all the outputs of this update were exported successfully
+     */
+    public synchronized void markExported(TaskDto taskDto) {
+        exportedFingerprints.put(taskDto.getTimestamp(), ExportFingerprint.of(taskDto));
+    }
+
+    private static boolean isFinished(TaskDto taskDto) {
+        return taskDto.getStatus() == TaskStatus.SUCCESS || taskDto.getStatus() == TaskStatus.ERROR;
+    }
+
+    private record ExportFingerprint(TaskStatus status, List<OutputFingerprint> outputs, int runs) {
+
+        private static ExportFingerprint of(TaskDto taskDto) {
+            return new ExportFingerprint(taskDto.getStatus(),
+                    taskDto.getOutputs() == null ? List.of() : taskDto.getOutputs().stream().map(OutputFingerprint::of).toList(),
+                    taskDto.getRunHistory() == null ? 0 : taskDto.getRunHistory().size());
+        }
+    }
+
+    private record OutputFingerprint(String fileType, ProcessFileStatus status, String filename, OffsetDateTime lastModificationDate) {
+
+        private static OutputFingerprint of(ProcessFileDto processFileDto) {
+            return new OutputFingerprint(processFileDto.getFileType(), processFileDto.getProcessFileStatus(), processFileDto.getFilename(), processFileDto.getLastModificationDate());
+        }
+    }
+}
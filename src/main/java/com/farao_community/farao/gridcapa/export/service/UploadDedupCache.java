@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.service;
+
+import com.farao_community.farao.gridcapa.export.config.DedupConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU map from (timestamp, file type, destination) to the digest of the last file successfully uploaded there.
+ * Each change is appended to a local file, reloaded on startup so that redeliveries received after a restart are
+ * deduplicated too. The file is compacted to the current entries, least recently used first, once it holds twice as
+ * many records as the map can.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@Component
+public class UploadDedupCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UploadDedupCache.class);
+    private static final String SEPARATOR = "\t";
+
+    private final boolean enabled;
+    private final Path file;
+    private final int maxEntries;
+    private final Map<String, String> digests;
+    private final Counter skippedUploads;
+    private final Counter savedBytes;
+    private int fileRecords;
+
+    public UploadDedupCache(DedupConfiguration dedupConfiguration, MeterRegistry meterRegistry) {
+        this.enabled = dedupConfiguration.enabled();
+        this.file = dedupConfiguration.file();
+        this.maxEntries = Math.max(1, dedupConfiguration.maxEntries());
+        this.digests = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.skippedUploads = Counter.builder("gridcapa.export.dedup.skipped.uploads")
+                .description("Uploads skipped because the same file was already uploaded to the destination")
+                .register(meterRegistry);
+        this.savedBytes = Counter.builder("gridcapa.export.dedup.saved.bytes")
+                .description("Bytes not uploaded thanks to deduplication")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("gridcapa.export.dedup.entries", this, UploadDedupCache::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void load() {
+        if (!enabled || !Files.exists(file)) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            synchronized (this) {
+                for (String line : lines) {
+                    int separatorIndex = line.lastIndexOf(SEPARATOR);
+                    if (separatorIndex > 0) {
+                        digests.put(line.substring(0, separatorIndex), line.substring(separatorIndex + 1));
+                    }
+                }
+                fileRecords = lines.size();
+            }
+            LOGGER.info("Loaded {} upload digests from {}", size(), file);
+        } catch (IOException e) {
+            LOGGER.warn("Could not load upload digests from {}, starting with an empty cache: {}", file, e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public static String key(OffsetDateTime timestamp, String fileType, String destination) {
+        return timestamp + "|" + fileType + "|" + destination;
+    }
+
+    /**
+     * @return true when a file with the same digest was the last one successfully uploaded for this key
+     */
+    public synchronized boolean isUnchanged(String key, String digest) {
+        return digest.equals(digests.get(key));
+    }
+
+    /**
+     * To be called once a file is successfully uploaded
+     */
+    public synchronized void record(String key, String digest) {
+        if (!digest.equals(digests.put(key, digest))) {
+            append(key, digest);
+        }
+    }
+
+    public void recordSkippedUpload(long bytes) {
+        skippedUploads.increment();
+        savedBytes.increment(bytes);
+    }
+
+    synchronized int size() {
+        return digests.size();
+    }
+
+    private void append(String key, String digest) {
+        if (fileRecords >= 2 * maxEntries) {
+            compact();
+            return;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file, key + SEPARATOR + digest + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            fileRecords++;
+        } catch (IOException e) {
+            LOGGER.warn("Could not save upload digest to {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrites the file with the current entries only, dropping the records of updated and evicted ones
+     */
+    private void compact() {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                    for (Map.Entry<String, String> entry : digests.entrySet()) {
+                        writer.write(entry.getKey() + SEPARATOR + entry.getValue());
+                        writer.newLine();
+                    }
+                }
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                fileRecords = digests.size();
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not save upload digests to {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -16,8 +16,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 import java.nio.charset.StandardCharsets;
@@ -47,13 +51,13 @@ class GridcapaExportApplicationTest {
         TaskDto taskDto1 = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:10Z"), TaskStatus.SUCCESS, createProcessFileList(1, 1), createProcessFileList(1, 1), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
         TaskDto taskDto2 = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f7"), OffsetDateTime.parse("2022-04-27T10:11Z"), TaskStatus.SUCCESS, createProcessFileList(1, 1), createProcessFileList(1, 1), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
         TaskDto taskDto3 = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f8"), OffsetDateTime.parse("2022-04-27T10:12Z"), TaskStatus.SUCCESS, createProcessFileList(1, 1), createProcessFileList(1, 1), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA0", byte[].class)).thenReturn(ResponseEntity.ok("test1".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:11Z/file/AA0", byte[].class)).thenThrow(RuntimeException.class);
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:12Z/file/AA0", byte[].class)).thenReturn(ResponseEntity.ok("test3".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z", TaskDto.class)).thenReturn(ResponseEntity.of(Optional.of(taskDto1)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/outputs", byte[].class)).thenReturn(ResponseEntity.ok("test1".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:12Z", TaskDto.class)).thenReturn(ResponseEntity.of(Optional.of(taskDto1)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:12Z/outputs", byte[].class)).thenReturn(ResponseEntity.ok("test1".getBytes(StandardCharsets.UTF_8)));
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA0", "test1");
+        Mockito.when(restTemplate.execute(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:11Z/file/AA0"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.<ResponseExtractor<Object>>any())).thenThrow(RuntimeException.class);
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:12Z/file/AA0", "test3");
+        Mockito.when(restTemplate.exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:10Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class))).thenReturn(ResponseEntity.of(Optional.of(taskDto1)));
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:10Z/outputs", "test1");
+        Mockito.when(restTemplate.exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:12Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class))).thenReturn(ResponseEntity.of(Optional.of(taskDto1)));
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:12Z/outputs", "test1");
 
         assertTrue(streamBridge.send("consumeTaskDtoUpdate-in-0", MessageBuilder.withPayload(taskDto1)
                         .build()));
@@ -64,6 +68,11 @@ class GridcapaExportApplicationTest {
                 .build()));
     }
 
+    private void mockFileDownload(String url, String content) {
+        Mockito.when(restTemplate.execute(Mockito.eq(url), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.<ResponseExtractor<Object>>any()))
+                .thenAnswer(invocation -> invocation.<ResponseExtractor<Object>>getArgument(3).extractData(new MockClientHttpResponse(content.getBytes(StandardCharsets.UTF_8), HttpStatus.OK)));
+    }
+
     private List<ProcessFileDto> createProcessFileList(int total, int nbValidated) {
         List<ProcessFileDto> result = new ArrayList<>();
         for (int i = 0; i < total; i++) {
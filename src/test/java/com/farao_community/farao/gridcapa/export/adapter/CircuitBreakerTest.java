@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.config_properties.CircuitBreakerProperties;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author agent {@literal <agent at local>}
+ */
+class CircuitBreakerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void checkCircuitOpensAfterConsecutiveFailuresAndClosesAfterSuccessfulProbe() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(new CircuitBreakerProperties(2, Duration.ofMillis(100)), new ExportMetrics(meterRegistry), "ftp", "ftp://localhost");
+
+        circuitBreaker.onFailure();
+        Assertions.assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure();
+        Assertions.assertTrue(circuitBreaker.untilAttemptAllowed().isPositive());
+        Assertions.assertFalse(circuitBreaker.tryAcquire());
+
+        Thread.sleep(150);
+        Assertions.assertTrue(circuitBreaker.untilAttemptAllowed().isZero());
+        Assertions.assertTrue(circuitBreaker.tryAcquire());
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        // a single probe at a time
+        Assertions.assertFalse(circuitBreaker.tryAcquire());
+        circuitBreaker.onSuccess();
+
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assertions.assertEquals(1, meterRegistry.get("gridcapa.export.circuit.transitions").tag("state", "open").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("gridcapa.export.circuit.transitions").tag("state", "closed").counter().count());
+    }
+
+    @Test
+    void checkFailedProbeOpensCircuitAgain() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(new CircuitBreakerProperties(1, Duration.ofMillis(100)), new ExportMetrics(meterRegistry), "sftp", "sftp://localhost");
+
+        circuitBreaker.onFailure();
+        Thread.sleep(150);
+        Assertions.assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure();
+
+        Assertions.assertTrue(circuitBreaker.untilAttemptAllowed().isPositive());
+        Assertions.assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void checkFailedAttemptsRetriedUntilSuccess() {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger retries = new AtomicInteger();
+
+        Assertions.assertEquals(Boolean.TRUE, UploadRetries.withBackoff(() -> attempts.incrementAndGet() == 3 ? UploadRetries.Outcome.SUCCEEDED : UploadRetries.Outcome.FAILED,
+                3, Duration.ofMillis(10), Duration.ofMillis(15), retries::incrementAndGet, () -> Duration.ZERO).block());
+        Assertions.assertEquals(3, attempts.get());
+        Assertions.assertEquals(2, retries.get());
+
+        Assertions.assertEquals(Boolean.FALSE, UploadRetries.withBackoff(() -> UploadRetries.Outcome.FAILED, 2, Duration.ZERO, Duration.ZERO, retries::incrementAndGet, () -> Duration.ZERO).block());
+    }
+
+    @Test
+    void checkOnlyFirstAttemptMadeBeforeSubscriptionReturns() {
+        List<Thread> attemptThreads = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Boolean> upload = UploadRetries.withBackoff(() -> {
+            attemptThreads.add(Thread.currentThread());
+            return attemptThreads.size() == 2 ? UploadRetries.Outcome.SUCCEEDED : UploadRetries.Outcome.FAILED;
+        }, 1, Duration.ofMillis(200), Duration.ofMillis(200), () -> { }, () -> Duration.ZERO).toFuture();
+
+        Assertions.assertEquals(List.of(Thread.currentThread()), attemptThreads);
+        Assertions.assertFalse(upload.isDone());
+        Assertions.assertTrue(upload.join());
+        Assertions.assertNotEquals(Thread.currentThread(), attemptThreads.get(1));
+    }
+
+    @Test
+    void checkRejectedAttemptsWaitForCircuitWithoutUsingRetries() {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger retries = new AtomicInteger();
+
+        Assertions.assertEquals(Boolean.TRUE, UploadRetries.withBackoff(() -> attempts.incrementAndGet() < 4 ? UploadRetries.Outcome.REJECTED : UploadRetries.Outcome.SUCCEEDED,
+                0, Duration.ZERO, Duration.ZERO, retries::incrementAndGet, () -> Duration.ofMillis(10)).block());
+        Assertions.assertEquals(4, attempts.get());
+        Assertions.assertEquals(0, retries.get());
+    }
+}
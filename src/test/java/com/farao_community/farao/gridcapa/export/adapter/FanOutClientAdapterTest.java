@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.config.SpoolConfiguration;
+import com.farao_community.farao.gridcapa.export.exception.ClientAdapterException;
+import com.farao_community.farao.gridcapa.export.exception.DestinationsUploadException;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author agent {@literal <agent at local>}
+ */
+class FanOutClientAdapterTest {
+
+    private static final byte[] CONTENT = randomContent(1024 * 1024);
+
+    @TempDir
+    Path spoolDirectory;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, byte[]> uploadedContents = new ConcurrentHashMap<>();
+    private FanOutClientAdapter fanOutClientAdapter;
+
+    @AfterEach
+    void closeAdapter() {
+        fanOutClientAdapter.close();
+    }
+
+    @Test
+    void checkEveryDestinationReceivesTheFile() throws ClientAdapterException {
+        Map<String, ClientAdapter> destinations = new LinkedHashMap<>();
+        destinations.put("primary", recordingAdapter("primary"));
+        destinations.put("backup", recordingAdapter("backup"));
+        fanOutClientAdapter = new FanOutClientAdapter(destinations, 128 * 1024, 1, new SpoolConfiguration(DataSize.ofMegabytes(1), spoolDirectory), new ExportMetrics(meterRegistry));
+
+        fanOutClientAdapter.upload("file.zip", false, new ByteArrayInputStream(CONTENT));
+
+        Assertions.assertArrayEquals(CONTENT, uploadedContents.get("primary"));
+        Assertions.assertArrayEquals(CONTENT, uploadedContents.get("backup"));
+        Assertions.assertEquals(1, meterRegistry.get("gridcapa.export.destination.uploads").tag("destination", "backup").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void checkFailingDestinationDoesNotPreventOthers() {
+        Map<String, ClientAdapter> destinations = new LinkedHashMap<>();
+        destinations.put("broken", (fileName, unzip, inputStream) -> {
+            throw new ClientAdapterException("Connection refused");
+        });
+        destinations.put("backup", recordingAdapter("backup"));
+        fanOutClientAdapter = new FanOutClientAdapter(destinations, 128 * 1024, 1, new SpoolConfiguration(DataSize.ofMegabytes(1), spoolDirectory), new ExportMetrics(meterRegistry));
+
+        DestinationsUploadException exception = Assertions.assertThrows(DestinationsUploadException.class,
+                () -> fanOutClientAdapter.upload("file.zip", false, new ByteArrayInputStream(CONTENT)));
+
+        Assertions.assertEquals(List.of("broken"), exception.getFailedDestinations());
+        Assertions.assertArrayEquals(CONTENT, uploadedContents.get("backup"));
+        Assertions.assertEquals(1, meterRegistry.get("gridcapa.export.destination.uploads").tag("destination", "broken").tag("outcome", "failure").counter().count());
+    }
+
+    @Test
+    void checkSlowDestinationDoesNotHoldBackOthersWithinItsBuffer() throws InterruptedException {
+        assertSlowDestinationDoesNotHoldBackOthers(2L * CONTENT.length);
+    }
+
+    @Test
+    void checkSlowDestinationSpoolsWhatDoesNotFitInItsBuffer() throws InterruptedException, IOException {
+        assertSlowDestinationDoesNotHoldBackOthers(128 * 1024);
+        try (var spooledFiles = Files.list(spoolDirectory)) {
+            Assertions.assertEquals(0, spooledFiles.count());
+        }
+    }
+
+    private void assertSlowDestinationDoesNotHoldBackOthers(long bufferSize) throws InterruptedException {
+        CountDownLatch fastDestinationDone = new CountDownLatch(1);
+        Map<String, ClientAdapter> destinations = new LinkedHashMap<>();
+        destinations.put("slow", (fileName, unzip, inputStream) -> {
+            try {
+                // only starts reading once the fast destination got the whole file
+                Assertions.assertTrue(fastDestinationDone.await(10, TimeUnit.SECONDS));
+                uploadedContents.put("slow", inputStream.readAllBytes());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ClientAdapterException(e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        destinations.put("fast", (fileName, unzip, inputStream) -> {
+            recordingAdapter("fast").upload(fileName, unzip, inputStream);
+            fastDestinationDone.countDown();
+        });
+        fanOutClientAdapter = new FanOutClientAdapter(destinations, bufferSize, 1, new SpoolConfiguration(DataSize.ofMegabytes(1), spoolDirectory), new ExportMetrics(meterRegistry));
+
+        Assertions.assertDoesNotThrow(() -> fanOutClientAdapter.upload("file.zip", false, new ByteArrayInputStream(CONTENT)));
+        Assertions.assertTrue(fastDestinationDone.await(0, TimeUnit.SECONDS));
+        Assertions.assertArrayEquals(CONTENT, uploadedContents.get("fast"));
+        Assertions.assertArrayEquals(CONTENT, uploadedContents.get("slow"));
+    }
+
+    private ClientAdapter recordingAdapter(String name) {
+        return (fileName, unzip, inputStream) -> {
+            try {
+                uploadedContents.put(name, inputStream.readAllBytes());
+            } catch (IOException e) {
+                throw new ClientAdapterException(e);
+            }
+        };
+    }
+
+    private static byte[] randomContent(int size) {
+        byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+        return content;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.config.SpoolConfiguration;
+import com.farao_community.farao.gridcapa.export.config_properties.FileSystemConfigurationProperties;
+import com.farao_community.farao.gridcapa.export.exception.ClientAdapterException;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * @author agent {@literal <agent at local>}
+ */
+class FileSystemClientAdapterTest {
+
+    @TempDir
+    Path destination;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FileSystemClientAdapter fileSystemClientAdapter;
+
+    @BeforeEach
+    void createAdapter() {
+        fileSystemClientAdapter = new FileSystemClientAdapter(new FileSystemConfigurationProperties(destination.resolve("outputs").toString(), 4), new ExportMetrics(meterRegistry), 1);
+    }
+
+    @AfterEach
+    void closeAdapter() {
+        fileSystemClientAdapter.close();
+    }
+
+    @Test
+    void checkFileReplacedAtomicallyInDestinationDirectory() throws ClientAdapterException, IOException {
+        fileSystemClientAdapter.upload("test.txt", false, new ByteArrayInputStream("first content".getBytes(StandardCharsets.UTF_8)));
+        fileSystemClientAdapter.upload("test.txt", false, new ByteArrayInputStream("test content".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals("test content", Files.readString(destination.resolve("outputs/test.txt")));
+        assertNoTemporaryFileLeft();
+    }
+
+    @Test
+    void checkSpooledFileTransferredToDestinationDirectory(@TempDir Path spoolDirectory) throws IOException {
+        try (SpooledUploadSource uploadSource = new SpooledUploadSource(new ByteArrayInputStream("file content".getBytes(StandardCharsets.UTF_8)),
+                new SpoolConfiguration(DataSize.ofBytes(4), spoolDirectory))) {
+            uploadSource.toFile();
+            fileSystemClientAdapter.uploadSpooled("copy.txt", false, uploadSource).block();
+        }
+        Assertions.assertEquals("file content", Files.readString(destination.resolve("outputs/copy.txt")));
+        assertNoTemporaryFileLeft();
+    }
+
+    @Test
+    void checkZippedFileUnzippedToDestinationDirectory() throws ClientAdapterException, IOException {
+        fileSystemClientAdapter.upload("archive.zip", true, new ByteArrayInputStream(zip(12)));
+        Path directory = destination.resolve("outputs/archive");
+        for (int entry = 0; entry < 12; entry++) {
+            Assertions.assertEquals("entry " + entry, Files.readString(directory.resolve("folder/entry" + entry + ".txt")));
+        }
+        Assertions.assertEquals(12, meterRegistry.get("gridcapa.export.unzip.entries").tag("outcome", "success").counter().count());
+        assertNoTemporaryFileLeft();
+    }
+
+    @Test
+    void checkEntryEscapingItsDirectoryRejected() throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(archive)) {
+            zipOutputStream.putNextEntry(new ZipEntry("../../escaped.txt"));
+            zipOutputStream.write("escaped".getBytes(StandardCharsets.UTF_8));
+        }
+        Assertions.assertThrows(ClientAdapterException.class, () -> fileSystemClientAdapter.upload("archive.zip", true, new ByteArrayInputStream(archive.toByteArray())));
+        Assertions.assertFalse(Files.exists(destination.resolve("escaped.txt")));
+        Assertions.assertEquals(1, meterRegistry.get("gridcapa.export.upload.failures").counter().count());
+    }
+
+    private void assertNoTemporaryFileLeft() throws IOException {
+        try (Stream<Path> files = Files.walk(destination)) {
+            Assertions.assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".part")));
+        }
+    }
+
+    private static byte[] zip(int entries) throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(archive)) {
+            for (int entry = 0; entry < entries; entry++) {
+                zipOutputStream.putNextEntry(new ZipEntry("folder/entry" + entry + ".txt"));
+                zipOutputStream.write(("entry " + entry).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return archive.toByteArray();
+    }
+}
@@ -7,6 +7,7 @@
 package com.farao_community.farao.gridcapa.export.adapter;
 
 import com.farao_community.farao.gridcapa.export.exception.ClientAdapterException;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockftpserver.fake.FakeFtpServer;
@@ -32,17 +33,20 @@ class FtpClientAdapterTest {
     @Autowired
     private FtpClientAdapter ftpClientAdapter;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void checkFileTransferredToRemoteDestination() throws ClientAdapterException {
         fakeFtpServer = new FakeFtpServer();
         fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
         FileSystem fileSystem = new UnixFakeFileSystem();
-        fileSystem.add(new DirectoryEntry("/data"));
+        fileSystem.add(new DirectoryEntry("/data/cse/idcc/outputs"));
         fakeFtpServer.setFileSystem(fileSystem);
         fakeFtpServer.setServerControlPort(3030);
         fakeFtpServer.start();
         ftpClientAdapter.upload("test.txt", false, new ByteArrayInputStream("test content".getBytes(StandardCharsets.UTF_8)));
-        Assertions.assertTrue(fakeFtpServer.getFileSystem().exists("/data/test.txt"));
+        Assertions.assertTrue(fakeFtpServer.getFileSystem().exists("/data/cse/idcc/outputs/test.txt"));
         fakeFtpServer.stop();
     }
 
@@ -65,6 +69,24 @@ class FtpClientAdapterTest {
         fakeFtpServer.stop();
     }
 
+    @Test
+    void checkConsecutiveUploadsReuseFtpConnection() throws ClientAdapterException {
+        fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+        FileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data/cse/idcc/outputs"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(3030);
+        fakeFtpServer.start();
+        double createdConnections = meterRegistry.get("gridcapa.export.ftp.pool.created").functionCounter().count();
+        ftpClientAdapter.upload("test1.txt", false, new ByteArrayInputStream("test content".getBytes(StandardCharsets.UTF_8)));
+        ftpClientAdapter.upload("test2.txt", false, new ByteArrayInputStream("test content".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals(createdConnections + 1, meterRegistry.get("gridcapa.export.ftp.pool.created").functionCounter().count());
+        Assertions.assertTrue(fakeFtpServer.getFileSystem().exists("/data/cse/idcc/outputs/test1.txt"));
+        Assertions.assertTrue(fakeFtpServer.getFileSystem().exists("/data/cse/idcc/outputs/test2.txt"));
+        fakeFtpServer.stop();
+    }
+
     @Test
     void checkFileTransferredToRemoteDestinationKo() {
         Assertions.assertThrows(ClientAdapterException.class, () -> ftpClientAdapter.upload("test.txt", false, new ByteArrayInputStream("test content".getBytes(StandardCharsets.UTF_8))));
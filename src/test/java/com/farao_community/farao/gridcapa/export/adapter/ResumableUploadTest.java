@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @author agent {@literal <agent at local>}
+ */
+class ResumableUploadTest {
+
+    @Test
+    void checkNoResumeBeforeAnyByteWasSent() {
+        ResumableUpload resumableUpload = new ResumableUpload(new ExportMetrics(new SimpleMeterRegistry()), "ftp");
+        Assertions.assertFalse(resumableUpload.hasTransferredBytes());
+        Assertions.assertEquals(0, resumableUpload.resumeOffset(500));
+    }
+
+    @Test
+    void checkResumeFromRemoteSizeAfterPartialTransfer() throws IOException {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResumableUpload resumableUpload = new ResumableUpload(new ExportMetrics(meterRegistry), "ftp");
+        InputStream firstAttempt = resumableUpload.track(new ByteArrayInputStream(new byte[1000]), 0);
+        Assertions.assertEquals(800, firstAttempt.readNBytes(800).length);
+        Assertions.assertTrue(resumableUpload.hasTransferredBytes());
+
+        Assertions.assertEquals(600, resumableUpload.resumeOffset(600));
+        Assertions.assertEquals(600, meterRegistry.get("gridcapa.export.upload.resumed.bytes").counter().count());
+        Assertions.assertEquals(200, meterRegistry.get("gridcapa.export.upload.resent.bytes").counter().count());
+    }
+
+    @Test
+    void checkFullResendWhenRemoteFileIsBiggerThanWhatWasSent() throws IOException {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResumableUpload resumableUpload = new ResumableUpload(new ExportMetrics(meterRegistry), "sftp");
+        resumableUpload.track(new ByteArrayInputStream(new byte[1000]), 0).readNBytes(300);
+
+        Assertions.assertEquals(0, resumableUpload.resumeOffset(5000));
+        Assertions.assertEquals(300, meterRegistry.get("gridcapa.export.upload.resent.bytes").counter().count());
+    }
+}
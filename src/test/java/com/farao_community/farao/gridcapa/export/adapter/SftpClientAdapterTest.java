@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.config.SpoolConfiguration;
+import com.farao_community.farao.gridcapa.export.config_properties.CircuitBreakerProperties;
+import com.farao_community.farao.gridcapa.export.config_properties.ConnectionPoolProperties;
+import com.farao_community.farao.gridcapa.export.config_properties.SftpConfigurationProperties;
+import com.farao_community.farao.gridcapa.export.config_properties.ThrottleProperties;
+import com.farao_community.farao.gridcapa.export.exception.ClientAdapterException;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+import com.jcraft.jsch.ChannelSftp;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.sftp.server.SftpSubsystemFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @author agent {@literal <agent at local>}
+ */
+@SpringBootTest(properties = {
+    "ftp.active=false",
+    "sftp.active=true",
+    "sftp.host=localhost",
+    "sftp.port=2222",
+    "sftp.access-key=user",
+    "sftp.secret-key=password",
+    "sftp.remote-relative-destination-directory=outputs",
+    "sftp.retry-sleep=0"
+})
+class SftpClientAdapterTest {
+
+    @TempDir
+    static Path sftpRoot;
+
+    private static SshServer sshServer;
+
+    @Autowired
+    private SftpClientAdapter sftpClientAdapter;
+
+    @BeforeAll
+    static void startSftpServer() throws IOException {
+        Files.createDirectories(sftpRoot.resolve("outputs"));
+        sshServer = SshServer.setUpDefaultServer();
+        sshServer.setPort(2222);
+        sshServer.setKeyPairProvider(new SimpleGeneratorHostKeyProvider(sftpRoot.resolve("hostkey.ser")));
+        sshServer.setPasswordAuthenticator((username, password, session) -> "user".equals(username) && "password".equals(password));
+        sshServer.setSubsystemFactories(List.of(new SftpSubsystemFactory()));
+        sshServer.setFileSystemFactory(new VirtualFileSystemFactory(sftpRoot));
+        sshServer.start();
+    }
+
+    @AfterAll
+    static void stopSftpServer() throws IOException {
+        sshServer.stop(true);
+    }
+
+    @Test
+    void checkFileTransferredToRemoteDestination() throws ClientAdapterException, IOException {
+        sftpClientAdapter.upload("test.txt", false, new ByteArrayInputStream("test content".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals("test content", Files.readString(sftpRoot.resolve("outputs/test.txt")));
+    }
+
+    @Test
+    void checkZippedFileUnzippedToRemoteDestination() throws ClientAdapterException {
+        sftpClientAdapter.upload("CGM_MicroGrid.zip", true, getClass().getResourceAsStream("CGM_MicroGrid.zip"));
+        Path directory = sftpRoot.resolve("outputs/CGM_MicroGrid");
+        Assertions.assertTrue(Files.isDirectory(directory));
+        Assertions.assertTrue(Files.exists(directory.resolve("20210209T1930Z_1D_ASSEMBLED_DL_9.zip")));
+        Assertions.assertTrue(Files.exists(directory.resolve("20210209T1930Z_1D_ASSEMBLED_SV_9.zip")));
+        Assertions.assertTrue(Files.exists(directory.resolve("20210209T1930Z_1D_BE_EQ_9.zip")));
+        Assertions.assertTrue(Files.exists(directory.resolve("20210209T1930Z_1D_BE_GL_9.zip")));
+        Assertions.assertFalse(Files.exists(sftpRoot.resolve("outputs/CGM_MicroGrid.zip")));
+    }
+
+    @Test
+    void checkExhaustedPoolDoesNotOpenCircuit() throws Exception {
+        SftpConfigurationProperties sftpConfigurationProperties = new SftpConfigurationProperties("localhost", 2222, "user", "password", "outputs",
+                new ConnectionPoolProperties(1, Duration.ofMillis(100), Duration.ofMinutes(1), Duration.ofMinutes(30), Duration.ofSeconds(30)), 4, 2, 0, 4,
+                ThrottleProperties.unlimited(), new CircuitBreakerProperties(1, Duration.ofMinutes(10)), 60, Duration.ofSeconds(30));
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SftpChannelPool sftpChannelPool = new SftpChannelPool(sftpConfigurationProperties, meterRegistry);
+        SftpClientAdapter saturatedAdapter = new SftpClientAdapter(sftpConfigurationProperties, sftpChannelPool,
+                new SpoolConfiguration(DataSize.ofMegabytes(1), sftpRoot), new ExportMetrics(meterRegistry), 1);
+        SftpDestination destination = SftpDestination.of(sftpConfigurationProperties);
+        try {
+            ChannelSftp busyChannel = sftpChannelPool.borrow(destination);
+            Assertions.assertThrows(ClientAdapterException.class,
+                    () -> saturatedAdapter.upload("busy.txt", false, new ByteArrayInputStream("busy".getBytes(StandardCharsets.UTF_8))));
+            Assertions.assertEquals(CircuitBreaker.State.CLOSED, saturatedAdapter.getCircuitState());
+            sftpChannelPool.release(destination, busyChannel, true);
+
+            saturatedAdapter.upload("busy.txt", false, new ByteArrayInputStream("busy".getBytes(StandardCharsets.UTF_8)));
+            Assertions.assertEquals("busy", Files.readString(sftpRoot.resolve("outputs/busy.txt")));
+        } finally {
+            saturatedAdapter.close();
+            sftpChannelPool.close();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.config.SpoolConfiguration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @author agent {@literal <agent at local>}
+ */
+class SpooledUploadSourceTest {
+
+    @TempDir
+    Path spoolDirectory;
+
+    @Test
+    void checkContentReplayedFromMemoryAfterPartialRead() throws IOException {
+        byte[] content = randomContent(10_000);
+        try (SpooledUploadSource uploadSource = new SpooledUploadSource(new ByteArrayInputStream(content), new SpoolConfiguration(DataSize.ofKilobytes(64), spoolDirectory))) {
+            try (InputStream firstAttempt = uploadSource.open()) {
+                Assertions.assertEquals(4_000, firstAttempt.readNBytes(4_000).length);
+            }
+            try (InputStream retry = uploadSource.open()) {
+                Assertions.assertArrayEquals(content, retry.readAllBytes());
+            }
+            Assertions.assertEquals(10_000, uploadSource.size());
+            try (var spooledFiles = Files.list(spoolDirectory)) {
+                Assertions.assertEquals(0, spooledFiles.count());
+            }
+        }
+    }
+
+    @Test
+    void checkContentReplayedFromFileAboveThreshold() throws IOException {
+        byte[] content = randomContent(300_000);
+        try (SpooledUploadSource uploadSource = new SpooledUploadSource(new ByteArrayInputStream(content), new SpoolConfiguration(DataSize.ofKilobytes(64), spoolDirectory))) {
+            try (InputStream firstAttempt = uploadSource.open()) {
+                Assertions.assertArrayEquals(content, firstAttempt.readAllBytes());
+            }
+            try (InputStream retry = uploadSource.open()) {
+                Assertions.assertEquals(100_000, retry.skip(100_000));
+                Assertions.assertEquals(content[100_000] & 0xFF, retry.read());
+            }
+            try (InputStream retry = uploadSource.open()) {
+                Assertions.assertArrayEquals(content, retry.readAllBytes());
+            }
+            try (var spooledFiles = Files.list(spoolDirectory)) {
+                Assertions.assertEquals(1, spooledFiles.count());
+            }
+        }
+        try (var spooledFiles = Files.list(spoolDirectory)) {
+            Assertions.assertEquals(0, spooledFiles.count());
+        }
+    }
+
+    @Test
+    void checkResumableContentKeepsOnlyItsTailWithoutSpoolingIt() throws IOException {
+        byte[] content = randomContent(300_000);
+        try (SpooledUploadSource uploadSource = SpooledUploadSource.resumable(new ByteArrayInputStream(content), new SpoolConfiguration(DataSize.ofKilobytes(64), spoolDirectory))) {
+            try (InputStream firstAttempt = uploadSource.open()) {
+                Assertions.assertArrayEquals(content, firstAttempt.readAllBytes());
+            }
+            try (var spooledFiles = Files.list(spoolDirectory)) {
+                Assertions.assertEquals(0, spooledFiles.count());
+            }
+            Assertions.assertThrows(IOException.class, uploadSource::open);
+            try (InputStream resumed = uploadSource.open(250_000)) {
+                Assertions.assertArrayEquals(Arrays.copyOfRange(content, 250_000, content.length), resumed.readAllBytes());
+            }
+            Assertions.assertTrue(uploadSource.spooledFile().isEmpty());
+        }
+    }
+
+    @Test
+    void checkResumableContentSpoolsWhatIsLeftAfterAFailedAttempt() throws IOException {
+        byte[] content = randomContent(400_000);
+        try (SpooledUploadSource uploadSource = SpooledUploadSource.resumable(new ByteArrayInputStream(content), new SpoolConfiguration(DataSize.ofKilobytes(64), spoolDirectory))) {
+            try (InputStream firstAttempt = uploadSource.open()) {
+                Assertions.assertEquals(200_000, firstAttempt.readNBytes(200_000).length);
+            }
+            try (InputStream resumed = uploadSource.open(150_000)) {
+                Assertions.assertArrayEquals(Arrays.copyOfRange(content, 150_000, content.length), resumed.readAllBytes());
+            }
+            Assertions.assertEquals(400_000, uploadSource.size());
+            try (var spooledFiles = Files.list(spoolDirectory)) {
+                Assertions.assertEquals(1, spooledFiles.count());
+            }
+        }
+    }
+
+    private static byte[] randomContent(int size) {
+        byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+        return content;
+    }
+}
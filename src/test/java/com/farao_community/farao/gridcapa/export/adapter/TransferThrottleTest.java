@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.adapter;
+
+import com.farao_community.farao.gridcapa.export.config_properties.ThrottleProperties;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @author agent {@literal <agent at local>}
+ */
+class TransferThrottleTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void checkStreamReadAtConfiguredBandwidth() throws Exception {
+        TransferThrottle transferThrottle = new TransferThrottle(new ThrottleProperties(DataSize.ofMegabytes(1), DataSize.ofKilobytes(64), 0),
+                new ExportMetrics(meterRegistry), "ftp", "ftp://localhost");
+
+        long startNanos = System.nanoTime();
+        try (InputStream inputStream = transferThrottle.throttle(new ByteArrayInputStream(new byte[320 * 1024]))) {
+            Assertions.assertEquals(320 * 1024, inputStream.readAllBytes().length);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        // the first 64KB are sent from the initial burst, the other 256KB at 1MB per second
+        Assertions.assertTrue(elapsedMillis >= 230, "read in " + elapsedMillis + " ms");
+        Assertions.assertTrue(meterRegistry.get("gridcapa.export.throttle.wait").tag("limit", "bandwidth").timer().count() > 0);
+    }
+
+    @Test
+    void checkTransferWaitsForFreeSlot() throws Exception {
+        TransferThrottle transferThrottle = new TransferThrottle(new ThrottleProperties(null, DataSize.ofKilobytes(64), 1),
+                new ExportMetrics(meterRegistry), "sftp", "sftp://localhost");
+
+        TransferThrottle.Permit firstPermit = transferThrottle.acquire();
+        CompletableFuture<TransferThrottle.Permit> secondPermit = CompletableFuture.supplyAsync(() -> {
+            try {
+                return transferThrottle.acquire();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Assertions.assertThrows(TimeoutException.class, () -> secondPermit.get(200, TimeUnit.MILLISECONDS));
+        firstPermit.close();
+        secondPermit.get(5, TimeUnit.SECONDS).close();
+
+        Assertions.assertEquals(2, meterRegistry.get("gridcapa.export.throttle.wait").tag("limit", "concurrency").timer().count());
+    }
+
+    @Test
+    void checkUnlimitedDestinationNotThrottled() {
+        TransferThrottle transferThrottle = new TransferThrottle(ThrottleProperties.unlimited(), new ExportMetrics(meterRegistry), "ftp", "ftp://localhost");
+        InputStream inputStream = new ByteArrayInputStream(new byte[1]);
+
+        Assertions.assertSame(inputStream, transferThrottle.throttle(inputStream));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.health;
+
+import com.farao_community.farao.gridcapa.export.exception.PoolExhaustedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author agent {@literal <agent at local>}
+ */
+class CachedHealthIndicatorTest {
+
+    private static final String DESTINATION = "ftp://user@localhost:21/outputs";
+
+    private final UploadOutcomes uploadOutcomes = new UploadOutcomes();
+    private final AtomicInteger checks = new AtomicInteger();
+
+    @Test
+    void checkHealthServedFromLastCheck() {
+        AbstractCachedHealthIndicator healthIndicator = healthIndicator(Duration.ofMinutes(1), true);
+        Assertions.assertEquals(Status.UNKNOWN, healthIndicator.health().getStatus());
+
+        healthIndicator.refresh();
+        uploadOutcomes.record(DESTINATION, false);
+        Health health = healthIndicator.health();
+        healthIndicator.health();
+
+        Assertions.assertEquals(1, checks.get());
+        Assertions.assertEquals(Status.UP, health.getStatus());
+        Assertions.assertTrue(health.getDetails().containsKey("latencyMillis"));
+        Assertions.assertEquals("failure", health.getDetails().get("lastUpload"));
+    }
+
+    @Test
+    void checkFailingCheckReportedDown() {
+        AbstractCachedHealthIndicator healthIndicator = new AbstractCachedHealthIndicator(uploadOutcomes, Duration.ofMinutes(1)) {
+            @Override
+            protected String getDestination() {
+                return DESTINATION;
+            }
+
+            @Override
+            protected boolean check() throws IOException {
+                throw new IOException("Connection refused");
+            }
+        };
+        healthIndicator.refresh();
+        Health health = healthIndicator.health();
+        Assertions.assertEquals(Status.DOWN, health.getStatus());
+        Assertions.assertEquals("Connection refused", health.getDetails().get("error"));
+    }
+
+    @Test
+    void checkBusyPoolReportedUnknown() {
+        AbstractCachedHealthIndicator healthIndicator = new AbstractCachedHealthIndicator(uploadOutcomes, Duration.ofMinutes(1)) {
+            @Override
+            protected String getDestination() {
+                return DESTINATION;
+            }
+
+            @Override
+            protected boolean check() throws PoolExhaustedException {
+                throw new PoolExhaustedException("Timeout waiting for idle object");
+            }
+        };
+        healthIndicator.refresh();
+        Health health = healthIndicator.health();
+        Assertions.assertEquals(Status.UNKNOWN, health.getStatus());
+        Assertions.assertEquals("connection pool busy", health.getDetails().get("error"));
+    }
+
+    @Test
+    void checkStaleCheckReportedDown() throws InterruptedException {
+        AbstractCachedHealthIndicator healthIndicator = healthIndicator(Duration.ofMillis(1), true);
+        healthIndicator.refresh();
+        Thread.sleep(20);
+        Health health = healthIndicator.health();
+        Assertions.assertEquals(Status.DOWN, health.getStatus());
+        Assertions.assertEquals(true, health.getDetails().get("stale"));
+    }
+
+    private AbstractCachedHealthIndicator healthIndicator(Duration maxStaleness, boolean up) {
+        return new AbstractCachedHealthIndicator(uploadOutcomes, maxStaleness) {
+            @Override
+            protected String getDestination() {
+                return DESTINATION;
+            }
+
+            @Override
+            protected boolean check() {
+                checks.incrementAndGet();
+                return up;
+            }
+        };
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.load;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import org.apache.ftpserver.FtpServer;
+import org.apache.ftpserver.ftplet.FtpException;
+import org.apache.sshd.server.SshServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays waves of task updates through the consumeTaskDtoUpdate-in-0 binding, against a task-manager stub and an
+ * in-process FTP or SFTP server, and reports the sustained export rate, export latencies and resource peaks.
+ * Excluded from the default build, run it with mvn -Pload test, tuned with the load.* properties of LoadProfile.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+@Tag("load")
+@SpringBootTest
+class ExportLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExportLoadTest.class);
+    private static final String DESTINATION_DIRECTORY = "outputs";
+    private static final OffsetDateTime FIRST_TIMESTAMP = OffsetDateTime.parse("2026-01-01T00:00Z");
+    private static final long POLLING_PERIOD_MILLIS = 50;
+
+    private static final LoadProfile LOAD_PROFILE = LoadProfile.fromSystemProperties();
+    private static TaskManagerStub taskManagerStub;
+    private static Path serverRoot;
+    private static FtpServer ftpServer;
+    private static SshServer sshServer;
+
+    @Autowired
+    private StreamBridge streamBridge;
+
+    @DynamicPropertySource
+    static void startServers(DynamicPropertyRegistry registry) throws IOException, FtpException {
+        taskManagerStub = new TaskManagerStub(LOAD_PROFILE.filesPerTask(), LOAD_PROFILE.fileSize().toBytes());
+        registry.add("task-manager.base-url", taskManagerStub::baseUrl);
+        // outputs are awaited for as long as the slowest validation takes
+        long validationDelaySeconds = LOAD_PROFILE.maxValidationDelay().toSeconds() + 1;
+        registry.add("task-manager.fetch-task.reties-number", () -> validationDelaySeconds + 2);
+        registry.add("task-manager.fetch-task.deadline-in-seconds", () -> 2 * validationDelaySeconds + 10);
+        registry.add("export.seperate-output-files", () -> true);
+        serverRoot = Files.createTempDirectory("gridcapa-export-load");
+        Files.createDirectories(serverRoot.resolve(DESTINATION_DIRECTORY));
+        int port = InProcessServers.freePort();
+        boolean sftp = "sftp".equals(LOAD_PROFILE.destination());
+        if (sftp) {
+            sshServer = InProcessServers.startSftpServer(serverRoot, port);
+        } else {
+            ftpServer = InProcessServers.startFtpServer(serverRoot, port);
+        }
+        String prefix = sftp ? "sftp." : "ftp.";
+        registry.add("ftp.active", () -> !sftp);
+        registry.add("sftp.active", () -> sftp);
+        registry.add(prefix + "host", () -> "localhost");
+        registry.add(prefix + "port", () -> port);
+        registry.add(prefix + "access-key", () -> InProcessServers.USER);
+        registry.add(prefix + "secret-key", () -> InProcessServers.PASSWORD);
+        registry.add(prefix + "remote-relative-destination-directory", () -> DESTINATION_DIRECTORY);
+    }
+
+    @AfterAll
+    static void stopServers() throws IOException {
+        taskManagerStub.close();
+        if (ftpServer != null) {
+            ftpServer.stop();
+        }
+        if (sshServer != null) {
+            sshServer.stop(true);
+        }
+        InProcessServers.deleteRecursively(serverRoot);
+    }
+
+    @Test
+    void replayWavesOfTaskUpdates() throws InterruptedException {
+        Map<OffsetDateTime, Long> pendingTasks = new HashMap<>();
+        try (LoadReport loadReport = new LoadReport()) {
+            long startNanos = System.nanoTime();
+            long deadlineNanos = startNanos + LOAD_PROFILE.timeout().toNanos();
+            List<OffsetDateTime> timestamps = timestamps();
+            int sentTasks = 0;
+            while (loadReport.exportedTasks() < timestamps.size() && System.nanoTime() < deadlineNanos) {
+                while (sentTasks < timestamps.size() && System.nanoTime() >= startNanos + sendingOffsetNanos(sentTasks)) {
+                    pendingTasks.put(timestamps.get(sentTasks), System.nanoTime());
+                    send(timestamps.get(sentTasks));
+                    sentTasks++;
+                }
+                pendingTasks.entrySet().removeIf(pendingTask -> {
+                    if (isExported(pendingTask.getKey())) {
+                        loadReport.exported(pendingTask.getValue(), System.nanoTime());
+                        return true;
+                    }
+                    return false;
+                });
+                TimeUnit.MILLISECONDS.sleep(POLLING_PERIOD_MILLIS);
+            }
+            LOGGER.info(loadReport.summary(LOAD_PROFILE));
+            Assertions.assertEquals(LOAD_PROFILE.tasks(), loadReport.exportedTasks(), "Tasks not exported within " + LOAD_PROFILE.timeout() + ": " + pendingTasks.keySet());
+        }
+    }
+
+    private static List<OffsetDateTime> timestamps() {
+        List<OffsetDateTime> timestamps = new ArrayList<>();
+        for (int task = 0; task < LOAD_PROFILE.tasks(); task++) {
+            timestamps.add(FIRST_TIMESTAMP.plusMinutes(15L * task));
+        }
+        return timestamps;
+    }
+
+    private static long sendingOffsetNanos(int task) {
+        int wave = task / LOAD_PROFILE.timestampsPerWave();
+        int taskOfWave = task % LOAD_PROFILE.timestampsPerWave();
+        return wave * LOAD_PROFILE.waveInterval().toNanos() + taskOfWave * LOAD_PROFILE.waveDuration().toNanos() / LOAD_PROFILE.timestampsPerWave();
+    }
+
+    private void send(OffsetDateTime timestamp) {
+        long minDelayMillis = LOAD_PROFILE.minValidationDelay().toMillis();
+        long validationDelayMillis = minDelayMillis + ThreadLocalRandom.current().nextLong(Math.max(1, LOAD_PROFILE.maxValidationDelay().toMillis() - minDelayMillis + 1));
+        TaskDto taskDto = taskManagerStub.registerTask(timestamp, Instant.now().plusMillis(validationDelayMillis));
+        Assertions.assertTrue(streamBridge.send("consumeTaskDtoUpdate-in-0", MessageBuilder.withPayload(taskDto).build()));
+    }
+
+    private static boolean isExported(OffsetDateTime timestamp) {
+        for (int index = 0; index < LOAD_PROFILE.filesPerTask(); index++) {
+            if (!isUploaded(TaskManagerStub.fileName(timestamp, TaskManagerStub.outputFileType(index)))) {
+                return false;
+            }
+        }
+        return isUploaded(TaskManagerStub.fileName(timestamp, TaskManagerStub.LOGS_FILE_TYPE));
+    }
+
+    private static boolean isUploaded(String fileName) {
+        Path path = serverRoot.resolve(DESTINATION_DIRECTORY).resolve(fileName);
+        try {
+            return Files.exists(path) && Files.size(path) == LOAD_PROFILE.fileSize().toBytes();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
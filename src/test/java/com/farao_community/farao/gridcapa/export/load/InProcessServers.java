@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.load;
+
+import org.apache.ftpserver.FtpServer;
+import org.apache.ftpserver.FtpServerFactory;
+import org.apache.ftpserver.ftplet.FtpException;
+import org.apache.ftpserver.ftplet.UserManager;
+import org.apache.ftpserver.listener.ListenerFactory;
+import org.apache.ftpserver.usermanager.PropertiesUserManagerFactory;
+import org.apache.ftpserver.usermanager.impl.BaseUser;
+import org.apache.ftpserver.usermanager.impl.ConcurrentLoginPermission;
+import org.apache.ftpserver.usermanager.impl.WritePermission;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.sftp.server.SftpSubsystemFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * In-process FTP and SFTP servers writing to a local directory, for load replays and benchmarks. Unlike the in-memory
+ * FakeFtpServer of the functional tests, they receive large files at disk speed.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public final class InProcessServers {
+
+    public static final String USER = "user";
+    public static final String PASSWORD = "password";
+
+    private InProcessServers() {
+        throw new AssertionError("Utility class should not be constructed");
+    }
+
+    public static FtpServer startFtpServer(Path root, int port) throws FtpException {
+        BaseUser user = new BaseUser();
+        user.setName(USER);
+        user.setPassword(PASSWORD);
+        user.setHomeDirectory(root.toString());
+        user.setAuthorities(List.of(new WritePermission(), new ConcurrentLoginPermission(0, 0)));
+        UserManager userManager = new PropertiesUserManagerFactory().createUserManager();
+        userManager.save(user);
+        ListenerFactory listenerFactory = new ListenerFactory();
+        listenerFactory.setPort(port);
+        FtpServerFactory ftpServerFactory = new FtpServerFactory();
+        ftpServerFactory.setUserManager(userManager);
+        ftpServerFactory.addListener("default", listenerFactory.createListener());
+        FtpServer ftpServer = ftpServerFactory.createServer();
+        ftpServer.start();
+        return ftpServer;
+    }
+
+    public static SshServer startSftpServer(Path root, int port) throws IOException {
+        SshServer sshServer = SshServer.setUpDefaultServer();
+        sshServer.setPort(port);
+        sshServer.setKeyPairProvider(new SimpleGeneratorHostKeyProvider(root.resolve("hostkey.ser")));
+        sshServer.setPasswordAuthenticator((username, password, session) -> USER.equals(username) && PASSWORD.equals(password));
+        sshServer.setSubsystemFactories(List.of(new SftpSubsystemFactory()));
+        sshServer.setFileSystemFactory(new VirtualFileSystemFactory(root));
+        sshServer.start();
+        return sshServer;
+    }
+
+    public static int freePort() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+
+    public static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.load;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Shape of a load replay, read from load.* system properties. The default one is the realistic case: the 96 quarter
+ * hours of a business day finishing within a minute.
+ *
+ * @param waves number of waves of task updates
+ * @param timestampsPerWave task updates of a wave, one per timestamp
+ * @param waveDuration time over which the updates of a wave are sent
+ * @param waveInterval time between the start of two waves
+ * @param minValidationDelay minimum time between an update and the validation of its outputs by task-manager
+ * @param maxValidationDelay maximum time between an update and the validation of its outputs by task-manager
+ * @param filesPerTask output files of each task, LOGS excluded
+ * @param fileSize size of each output file
+ * @param destination ftp or sftp
+ * @param timeout time given to all the tasks to be exported
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public record LoadProfile(int waves, int timestampsPerWave, Duration waveDuration, Duration waveInterval,
+                          Duration minValidationDelay, Duration maxValidationDelay, int filesPerTask, DataSize fileSize,
+                          String destination, Duration timeout) {
+
+    public static LoadProfile fromSystemProperties() {
+        Duration waveDuration = duration("load.wave-duration", "PT1M");
+        return new LoadProfile(Integer.getInteger("load.waves", 1),
+                Integer.getInteger("load.timestamps-per-wave", 96),
+                waveDuration,
+                duration("load.wave-interval", waveDuration.toString()),
+                duration("load.min-validation-delay", "PT0S"),
+                duration("load.max-validation-delay", "PT10S"),
+                Integer.getInteger("load.files-per-task", 1),
+                DataSize.parse(System.getProperty("load.file-size", "1MB")),
+                System.getProperty("load.destination", "ftp"),
+                duration("load.timeout", "PT10M"));
+    }
+
+    public int tasks() {
+        return waves * timestampsPerWave;
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return Duration.parse(System.getProperty(property, defaultValue));
+    }
+}
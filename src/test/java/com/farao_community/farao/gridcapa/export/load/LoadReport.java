@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Export latencies of a load replay, from the sending of each task update to the end of the upload of its last file,
+ * along with the heap and thread count peaks sampled during the replay
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public class LoadReport implements AutoCloseable {
+
+    private static final long SAMPLING_PERIOD_MILLIS = 100;
+    private static final double MEGABYTE = 1024d * 1024d;
+
+    private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicLong peakHeapBytes = new AtomicLong();
+    private final AtomicInteger peakThreads = new AtomicInteger();
+    private final List<Duration> latencies = new ArrayList<>();
+    private final long startNanos = System.nanoTime();
+    private long lastCompletionNanos = startNanos;
+
+    public LoadReport() {
+        threadMXBean.resetPeakThreadCount();
+        sampler.scheduleAtFixedRate(this::sample, 0, SAMPLING_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void exported(long sentNanos, long exportedNanos) {
+        latencies.add(Duration.ofNanos(exportedNanos - sentNanos));
+        lastCompletionNanos = Math.max(lastCompletionNanos, exportedNanos);
+    }
+
+    public synchronized int exportedTasks() {
+        return latencies.size();
+    }
+
+    public synchronized double tasksPerMinute() {
+        long elapsedNanos = lastCompletionNanos - startNanos;
+        return elapsedNanos == 0 ? 0 : latencies.size() * 60e9 / elapsedNanos;
+    }
+
+    /**
+     * @param percentile between 0 and 100, nearest-rank
+     */
+    public synchronized Duration latencyPercentile(double percentile) {
+        if (latencies.isEmpty()) {
+            return Duration.ZERO;
+        }
+        List<Duration> sortedLatencies = latencies.stream().sorted().toList();
+        int rank = (int) Math.ceil(percentile / 100 * sortedLatencies.size());
+        return sortedLatencies.get(Math.clamp(rank - 1L, 0, sortedLatencies.size() - 1));
+    }
+
+    public long peakHeapBytes() {
+        return peakHeapBytes.get();
+    }
+
+    public int peakThreads() {
+        return Math.max(peakThreads.get(), threadMXBean.getPeakThreadCount());
+    }
+
+    public String summary(LoadProfile loadProfile) {
+        return String.format(Locale.ROOT, """
+                Load replay of %d waves of %d tasks (%d x %s files each) to %s:
+                  exported tasks    %d / %d
+                  sustained rate    %.1f tasks/min
+                  export latency    p50 %d ms, p99 %d ms
+                  peak heap         %.1f MB
+                  peak threads      %d""",
+                loadProfile.waves(), loadProfile.timestampsPerWave(), loadProfile.filesPerTask() + 1, loadProfile.fileSize(), loadProfile.destination(),
+                exportedTasks(), loadProfile.tasks(),
+                tasksPerMinute(),
+                latencyPercentile(50).toMillis(), latencyPercentile(99).toMillis(),
+                peakHeapBytes() / MEGABYTE,
+                peakThreads());
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+    }
+
+    private void sample() {
+        peakHeapBytes.accumulateAndGet(memoryMXBean.getHeapMemoryUsage().getUsed(), Math::max);
+        peakThreads.accumulateAndGet(threadMXBean.getThreadCount(), Math::max);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.load;
+
+import com.farao_community.farao.gridcapa.task_manager.api.ProcessFileDto;
+import com.farao_community.farao.gridcapa.task_manager.api.ProcessFileStatus;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Task-manager answering for the tasks it was told about: their outputs are validated once their validation instant
+ * is past, and every output file is served with the configured size.
+ *
+ * @author agent {@literal <agent at local>}
+ */
+public class TaskManagerStub implements AutoCloseable {
+
+    public static final String LOGS_FILE_TYPE = "LOGS";
+    private static final String TASKS_PATH = "/tasks/";
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final HttpServer httpServer;
+    private final ExecutorService executorService = Executors.newFixedThreadPool(16);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final Map<OffsetDateTime, Instant> validationInstants = new ConcurrentHashMap<>();
+    private final int filesPerTask;
+    private final long fileSize;
+
+    public TaskManagerStub(int filesPerTask, long fileSize) throws IOException {
+        this.filesPerTask = filesPerTask;
+        this.fileSize = fileSize;
+        this.httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.setExecutor(executorService);
+        httpServer.createContext(TASKS_PATH, this::handle);
+        httpServer.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + httpServer.getAddress().getPort();
+    }
+
+    public static String outputFileType(int index) {
+        return "OUTPUT" + index;
+    }
+
+    public static String fileName(OffsetDateTime timestamp, String fileType) {
+        return timestamp.toEpochSecond() + "_" + fileType + ".bin";
+    }
+
+    /**
+     * @return the task as task-manager knows it now, its outputs being validated after the given instant
+     */
+    public TaskDto registerTask(OffsetDateTime timestamp, Instant validationInstant) {
+        validationInstants.put(timestamp, validationInstant);
+        return task(timestamp);
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executorService.shutdownNow();
+    }
+
+    private TaskDto task(OffsetDateTime timestamp) {
+        Instant validationInstant = validationInstants.get(timestamp);
+        ProcessFileStatus outputStatus = validationInstant != null && !Instant.now().isBefore(validationInstant) ? ProcessFileStatus.VALIDATED : ProcessFileStatus.NOT_PRESENT;
+        List<ProcessFileDto> outputs = new ArrayList<>();
+        for (int index = 0; index < filesPerTask; index++) {
+            String fileType = outputFileType(index);
+            outputs.add(new ProcessFileDto(fileType + "/" + fileName(timestamp, fileType), fileType, outputStatus, fileName(timestamp, fileType), "", timestamp));
+        }
+        UUID id = UUID.nameUUIDFromBytes(timestamp.toString().getBytes());
+        return new TaskDto(id, timestamp, TaskStatus.SUCCESS, new ArrayList<>(), new ArrayList<>(), outputs, new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] path = exchange.getRequestURI().getPath().substring(TASKS_PATH.length()).split("/");
+            OffsetDateTime timestamp = OffsetDateTime.parse(path[0]);
+            if (path.length == 1) {
+                byte[] body = objectMapper.writeValueAsBytes(task(timestamp));
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } else if (path.length == 3 && "file".equals(path[1])) {
+                exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+                exchange.getResponseHeaders().add("Content-Disposition", "attachment; filename=\"" + fileName(timestamp, path[2]) + "\"");
+                exchange.sendResponseHeaders(200, fileSize);
+                writeContent(exchange.getResponseBody());
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+            }
+        }
+    }
+
+    private void writeContent(OutputStream outputStream) throws IOException {
+        byte[] chunk = new byte[CHUNK_SIZE];
+        Arrays.fill(chunk, (byte) 'x');
+        long remaining = fileSize;
+        while (remaining > 0) {
+            int length = (int) Math.min(chunk.length, remaining);
+            outputStream.write(chunk, 0, length);
+            remaining -= length;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.service;
+
+import com.farao_community.farao.gridcapa.export.config.JournalConfiguration;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * @author agent {@literal <agent at local>}
+ */
+class ExportJournalTest {
+
+    @TempDir
+    Path journalDirectory;
+
+    @Test
+    void checkOnlyUnfinishedExportsAreRecoveredWithTheirStage() {
+        ExportJournal exportJournal = openJournal(DataSize.ofMegabytes(1));
+        TaskUpdateConflator.TaskUpdate exported = taskUpdate("2022-04-27T10:10Z", 1);
+        TaskUpdateConflator.TaskUpdate transferring = taskUpdate("2022-04-27T11:10Z", 2);
+        TaskUpdateConflator.TaskUpdate received = taskUpdate("2022-04-27T12:10Z", 3);
+        exportJournal.append(exported);
+        exportJournal.append(transferring);
+        exportJournal.append(received);
+        exportJournal.stage(exported, ExportJournal.Stage.TRANSFERRING);
+        exportJournal.stage(transferring, ExportJournal.Stage.TRANSFERRING);
+        exportJournal.complete(exported);
+
+        List<ExportJournal.RecoveredExport> recoveredExports = openJournal(DataSize.ofMegabytes(1)).getRecoveredExports();
+
+        Assertions.assertEquals(2, recoveredExports.size());
+        Assertions.assertEquals(OffsetDateTime.parse("2022-04-27T11:10Z").toInstant(), recoveredExports.get(0).taskDto().getTimestamp().toInstant());
+        Assertions.assertEquals(ExportJournal.Stage.TRANSFERRING, recoveredExports.get(0).stage());
+        Assertions.assertEquals(OffsetDateTime.parse("2022-04-27T12:10Z").toInstant(), recoveredExports.get(1).taskDto().getTimestamp().toInstant());
+        Assertions.assertEquals(ExportJournal.Stage.RECEIVED, recoveredExports.get(1).stage());
+    }
+
+    @Test
+    void checkAdoptedRecoveredExportIsNotRecoveredOnceComplete() {
+        ExportJournal exportJournal = openJournal(DataSize.ofMegabytes(1));
+        exportJournal.append(taskUpdate("2022-04-27T10:10Z", 1));
+        ExportJournal reopenedJournal = openJournal(DataSize.ofMegabytes(1));
+        ExportJournal.RecoveredExport recoveredExport = reopenedJournal.getRecoveredExports().get(0);
+        TaskUpdateConflator.TaskUpdate resumed = new TaskUpdateConflator.TaskUpdate(recoveredExport.taskDto(), 1, System.nanoTime());
+
+        reopenedJournal.adopt(resumed, recoveredExport.id());
+        reopenedJournal.complete(resumed);
+
+        Assertions.assertEquals(0, reopenedJournal.size());
+        Assertions.assertTrue(openJournal(DataSize.ofMegabytes(1)).getRecoveredExports().isEmpty());
+    }
+
+    @Test
+    void checkFullJournalIsCompactedAndGrown() throws Exception {
+        ExportJournal exportJournal = openJournal(DataSize.ofKilobytes(4));
+        for (int sequence = 1; sequence <= 200; sequence++) {
+            TaskUpdateConflator.TaskUpdate taskUpdate = taskUpdate("2022-04-27T10:10Z", sequence);
+            exportJournal.append(taskUpdate);
+            exportJournal.complete(taskUpdate);
+        }
+        for (int sequence = 201; sequence <= 260; sequence++) {
+            exportJournal.append(taskUpdate(OffsetDateTime.parse("2022-04-27T00:00Z").plusHours(sequence).toString(), sequence));
+        }
+
+        Assertions.assertTrue(Files.size(journalDirectory.resolve("journal.dat")) > DataSize.ofKilobytes(4).toBytes());
+        Assertions.assertEquals(60, openJournal(DataSize.ofKilobytes(4)).getRecoveredExports().size());
+    }
+
+    @Test
+    void checkEnabledJournalRequiresFile() {
+        DataSize size = DataSize.ofMegabytes(16);
+        IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class, () -> new JournalConfiguration(true, null, size));
+        Assertions.assertTrue(exception.getMessage().contains("export.journal.file"));
+        Assertions.assertDoesNotThrow(() -> new JournalConfiguration(false, null, size));
+    }
+
+    private ExportJournal openJournal(DataSize size) {
+        ExportJournal exportJournal = new ExportJournal(new JournalConfiguration(true, journalDirectory.resolve("journal.dat"), size),
+                Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry());
+        exportJournal.load();
+        return exportJournal;
+    }
+
+    private static TaskUpdateConflator.TaskUpdate taskUpdate(String timestamp, long sequence) {
+        TaskDto taskDto = new TaskDto(UUID.randomUUID(), OffsetDateTime.parse(timestamp), TaskStatus.SUCCESS, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        return new TaskUpdateConflator.TaskUpdate(taskDto, sequence, System.nanoTime());
+    }
+}
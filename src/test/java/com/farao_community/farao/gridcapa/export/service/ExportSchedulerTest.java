@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.service;
+
+import com.farao_community.farao.gridcapa.export.config.PriorityConfiguration;
+import com.farao_community.farao.gridcapa.export.config_properties.PriorityRule;
+import com.farao_community.farao.gridcapa.export.metrics.ExportMetrics;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * @author agent {@literal <agent at local>}
+ */
+class ExportSchedulerTest {
+
+    private static final PriorityRule GATE_CLOSING = new PriorityRule("gate-closing", Set.of(), Duration.ZERO, Duration.ofHours(2));
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Long> startedSequences = new ArrayList<>();
+    private final Sinks.Empty<Void> firstExportGate = Sinks.empty();
+
+    @Test
+    void checkUrgentUpdateExportedBeforeEarlierHistoricalOnes() {
+        ExportScheduler exportScheduler = scheduler(Duration.ofHours(1));
+        OffsetDateTime now = OffsetDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+        exportScheduler.schedule(taskUpdate(now.minusDays(3), 1), this::export).subscribe();
+        exportScheduler.schedule(taskUpdate(now.minusDays(2), 2), this::export).subscribe();
+        exportScheduler.schedule(taskUpdate(now.plusHours(1), 3), this::export).subscribe();
+        Assertions.assertEquals(2, exportScheduler.queuedExports());
+        firstExportGate.tryEmitEmpty();
+
+        Assertions.assertEquals(List.of(1L, 3L, 2L), startedSequences);
+        Assertions.assertEquals(1, meterRegistry.get("gridcapa.export.queue.wait").tag("priority", "gate-closing").timer().count());
+        Assertions.assertEquals(2, meterRegistry.get("gridcapa.export.queue.wait").tag("priority", ExportScheduler.DEFAULT_CLASS).timer().count());
+    }
+
+    @Test
+    void checkAgedUpdatesExportedInReceptionOrder() {
+        ExportScheduler exportScheduler = scheduler(Duration.ofNanos(1));
+        OffsetDateTime now = OffsetDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+        exportScheduler.schedule(taskUpdate(now.minusDays(3), 1), this::export).subscribe();
+        exportScheduler.schedule(taskUpdate(now.minusDays(2), 2), this::export).subscribe();
+        exportScheduler.schedule(taskUpdate(now.plusHours(1), 3), this::export).subscribe();
+        firstExportGate.tryEmitEmpty();
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L), startedSequences);
+    }
+
+    @Test
+    void checkUpdatesOfSameTimestampNeverExportedConcurrently() {
+        ExportScheduler exportScheduler = new ExportScheduler(new PriorityConfiguration(List.of(GATE_CLOSING), Duration.ZERO, Duration.ofHours(1)),
+                new ExportMetrics(meterRegistry), 4);
+        OffsetDateTime timestamp = OffsetDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+
+        exportScheduler.schedule(taskUpdate(timestamp, 1), this::export).subscribe();
+        exportScheduler.schedule(taskUpdate(timestamp, 2), this::export).subscribe();
+        exportScheduler.schedule(taskUpdate(timestamp.minusDays(1), 3), this::export).subscribe();
+        Assertions.assertEquals(List.of(1L, 3L), startedSequences);
+        firstExportGate.tryEmitEmpty();
+
+        Assertions.assertEquals(List.of(1L, 3L, 2L), startedSequences);
+        Assertions.assertEquals(0, exportScheduler.queuedExports());
+    }
+
+    private ExportScheduler scheduler(Duration ageingInterval) {
+        return new ExportScheduler(new PriorityConfiguration(List.of(GATE_CLOSING), Duration.ZERO, ageingInterval), new ExportMetrics(meterRegistry), 1);
+    }
+
+    /**
+     * The first export only completes once the gate is opened, the other ones right away
+     */
+    private Mono<Void> export(TaskUpdateConflator.TaskUpdate taskUpdate) {
+        startedSequences.add(taskUpdate.sequence());
+        return taskUpdate.sequence() == 1 ? firstExportGate.asMono() : Mono.empty();
+    }
+
+    private static TaskUpdateConflator.TaskUpdate taskUpdate(OffsetDateTime timestamp, long sequence) {
+        TaskDto taskDto = new TaskDto(UUID.randomUUID(), timestamp, TaskStatus.SUCCESS, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        return new TaskUpdateConflator.TaskUpdate(taskDto, sequence, System.nanoTime());
+    }
+}
@@ -6,31 +6,56 @@
  */
 package com.farao_community.farao.gridcapa.export.service;
 
+import com.farao_community.farao.gridcapa.export.adapter.ClientAdapter;
 import com.farao_community.farao.gridcapa.export.adapter.FtpClientAdapter;
+import com.farao_community.farao.gridcapa.export.config.DedupConfiguration;
 import com.farao_community.farao.gridcapa.export.exception.ClientAdapterException;
 import com.farao_community.farao.gridcapa.task_manager.api.ProcessFileDto;
 import com.farao_community.farao.gridcapa.task_manager.api.ProcessFileStatus;
 import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
 import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
+import org.mockito.verification.VerificationMode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 /**
  * @author Mohamed Benrejeb {@literal <mohamed.ben-rejeb at rte-france.com>}
@@ -48,123 +73,348 @@ class GridcapaExportServiceTest {
     @Autowired
     private GridcapaExportService outputsToFtpService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void stubUploads() {
+        Mockito.when(ftpClientAdapter.uploadDeferred(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any())).thenReturn(Mono.empty());
+        Mockito.when(ftpClientAdapter.uploadSpooled(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any())).thenReturn(Mono.empty());
+        Mockito.when(ftpClientAdapter.getDestinations()).thenReturn(Map.of("ftp", ftpClientAdapter));
+    }
+
     @Test
     void checkFileNameRetrievedCorrectlyFromHeader() {
         HttpHeaders header = new HttpHeaders();
         header.setContentType(MediaType.APPLICATION_JSON);
         header.put("Content-Disposition", List.of("filename=\"out.zip\""));
-        ResponseEntity<byte[]> responseEntity = new ResponseEntity<>(
-                "test-body".getBytes(StandardCharsets.UTF_8),
-                header,
-                HttpStatus.OK
-        );
-        Assertions.assertEquals("out.zip", outputsToFtpService.getFileNameFromResponseEntity(responseEntity));
+        Assertions.assertEquals("out.zip", outputsToFtpService.getFileNameFromHeaders(header));
     }
 
     @Test
     void checkTaskManagerCallWithAllOutputsForSuccessTask() {
         ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", false);
-        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:10Z"), TaskStatus.SUCCESS, createProcessFileList(2, 2), createProcessFileList(2, 2), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/outputs", byte[].class)).thenReturn(ResponseEntity.ok("test".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z", TaskDto.class)).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
-        outputsToFtpService.exportOutputsForTask(taskDto);
-        Mockito.verify(restTemplate, Mockito.atLeastOnce()).getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/outputs", byte[].class);
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:01Z"), TaskStatus.SUCCESS, createProcessFileList(2, 2), createProcessFileList(2, 2), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:01Z/outputs", "test");
+        Mockito.when(restTemplate.exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:01Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class))).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
+        outputsToFtpService.exportOutputsForTask(taskDto).block();
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T10:01Z/outputs", Mockito.atLeastOnce());
     }
 
     @Test
     void checkTaskManagerCallWithMissingFileForSuccessTask() {
         ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", false);
-        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:11Z"), TaskStatus.SUCCESS, createProcessFileList(2, 1), createProcessFileList(2, 1), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:11Z/outputs", byte[].class)).thenReturn(ResponseEntity.ok("test".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:11Z", TaskDto.class)).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
-        outputsToFtpService.exportOutputsForTask(taskDto);
-        Mockito.verify(restTemplate, Mockito.times(1)).getForEntity("http://localhost:8080/tasks/2022-04-27T10:11Z/outputs", byte[].class);
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:02Z"), TaskStatus.SUCCESS, createProcessFileList(2, 1), createProcessFileList(2, 1), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:02Z/outputs", "test");
+        Mockito.when(restTemplate.exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:02Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class))).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
+        outputsToFtpService.exportOutputsForTask(taskDto).block();
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T10:02Z/outputs", Mockito.times(1));
     }
 
     @Test
     void checkTaskManagerCallWithMissingFileForErrorTask() {
         ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", false);
-        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:11Z"), TaskStatus.ERROR, createProcessFileList(2, 1), createProcessFileList(2, 1), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:11Z/outputs", byte[].class)).thenReturn(ResponseEntity.ok("test".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:11Z", TaskDto.class)).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
-        outputsToFtpService.exportOutputsForTask(taskDto);
-        Mockito.verify(restTemplate, Mockito.times(1)).getForEntity("http://localhost:8080/tasks/2022-04-27T10:11Z/outputs", byte[].class);
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:03Z"), TaskStatus.ERROR, createProcessFileList(2, 1), createProcessFileList(2, 1), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:03Z/outputs", "test");
+        Mockito.when(restTemplate.exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:03Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class))).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
+        outputsToFtpService.exportOutputsForTask(taskDto).block();
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T10:03Z/outputs", Mockito.times(1));
     }
 
     @Test
     void checkTaskManagerCallWithLogFileForErrorTask() {
         ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", false);
-        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:11Z"), TaskStatus.ERROR, createProcessFileList(2, 0), createProcessFileList(2, 0), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:11Z/outputs", byte[].class)).thenReturn(ResponseEntity.ok("test".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:11Z", TaskDto.class)).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
-        outputsToFtpService.exportOutputsForTask(taskDto);
-        Mockito.verify(restTemplate, Mockito.times(1)).getForEntity("http://localhost:8080/tasks/2022-04-27T10:11Z/outputs", byte[].class);
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:04Z"), TaskStatus.ERROR, createProcessFileList(2, 0), createProcessFileList(2, 0), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:04Z/outputs", "test");
+        Mockito.when(restTemplate.exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:04Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class))).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
+        outputsToFtpService.exportOutputsForTask(taskDto).block();
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T10:04Z/outputs", Mockito.times(1));
     }
 
     @Test
     void checkTaskManagerCallForSeperateZipFilesForSuccessTask() {
         ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", true);
-        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:10Z"), TaskStatus.SUCCESS, createProcessFileList(3, 3), new ArrayList<>(), createProcessFileList(3, 3),  new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA0", byte[].class)).thenReturn(ResponseEntity.ok("test1".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA1", byte[].class)).thenReturn(ResponseEntity.ok("test2".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA2", byte[].class)).thenReturn(ResponseEntity.ok("test3".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/LOGS", byte[].class)).thenReturn(ResponseEntity.ok("rao-logs.zip".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z", TaskDto.class)).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
-        outputsToFtpService.exportOutputsForTask(taskDto);
-        Mockito.verify(restTemplate, Mockito.atLeastOnce()).getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA0", byte[].class);
-        Mockito.verify(restTemplate, Mockito.atLeastOnce()).getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA1", byte[].class);
-        Mockito.verify(restTemplate, Mockito.atLeastOnce()).getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA2", byte[].class);
-        Mockito.verify(restTemplate, Mockito.atLeastOnce()).getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/LOGS", byte[].class);
-        try {
-            Mockito.verify(ftpClientAdapter, Mockito.times(4)).upload(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any());
-        } catch (ClientAdapterException e) {
-            Assertions.fail("checkTaskManagerCallForSeperateZipFiles : ftpClientAdapter should not throw IOException!");
-        }
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:05Z"), TaskStatus.SUCCESS, createProcessFileList(3, 3), new ArrayList<>(), createProcessFileList(3, 3),  new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:05Z/file/AA0", "test1");
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:05Z/file/AA1", "test2");
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:05Z/file/AA2", "test3");
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:05Z/file/LOGS", "rao-logs.zip");
+        Mockito.when(restTemplate.exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:05Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class))).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
+        outputsToFtpService.exportOutputsForTask(taskDto).block();
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T10:05Z/file/AA0", Mockito.atLeastOnce());
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T10:05Z/file/AA1", Mockito.atLeastOnce());
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T10:05Z/file/AA2", Mockito.atLeastOnce());
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T10:05Z/file/LOGS", Mockito.atLeastOnce());
+        Mockito.verify(ftpClientAdapter, Mockito.times(4)).uploadDeferred(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any());
     }
 
     @Test
     void checkTaskManagerCallForLogsForErrorTask() {
         ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", true);
-        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:10Z"), TaskStatus.ERROR, createProcessFileList(3, 0), createProcessFileList(3, 0), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/LOGS", byte[].class)).thenReturn(ResponseEntity.ok("rao-logs.zip".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z", TaskDto.class)).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
-        outputsToFtpService.exportOutputsForTask(taskDto);
-        Mockito.verify(restTemplate, Mockito.never()).getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA0", byte[].class);
-        Mockito.verify(restTemplate, Mockito.atLeastOnce()).getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/LOGS", byte[].class);
-        try {
-            Mockito.verify(ftpClientAdapter, Mockito.times(1)).upload(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any());
-        } catch (ClientAdapterException e) {
-            Assertions.fail("checkTaskManagerCallForSeperateZipFiles : ftpClientAdapter should not throw IOException!");
-        }
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:06Z"), TaskStatus.ERROR, createProcessFileList(3, 0), createProcessFileList(3, 0), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:06Z/file/LOGS", "rao-logs.zip");
+        Mockito.when(restTemplate.exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:06Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class))).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
+        outputsToFtpService.exportOutputsForTask(taskDto).block();
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T10:06Z/file/AA0", Mockito.never());
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T10:06Z/file/LOGS", Mockito.atLeastOnce());
+        Mockito.verify(ftpClientAdapter, Mockito.times(1)).uploadDeferred(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any());
     }
 
     @Test
-    void checkTaskManagerCallToUnZipFilesForSuccessTask() throws ClientAdapterException {
+    void checkTaskManagerCallToUnZipFilesForSuccessTask() {
         ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", true);
         ReflectionTestUtils.setField(outputsToFtpService, "unzipFiles", List.of("/AA0", "/AA1", "/AA2"));
-        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:10Z"), TaskStatus.SUCCESS, createProcessFileList(4, 4), new ArrayList<>(), createProcessFileList(4, 4), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA0", byte[].class)).thenReturn(ResponseEntity.ok("test1".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA1", byte[].class)).thenReturn(ResponseEntity.ok("test2".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA2", byte[].class)).thenReturn(ResponseEntity.ok("test3".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA2", byte[].class)).thenReturn(ResponseEntity.ok("test4".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/LOGS", byte[].class)).thenReturn(ResponseEntity.ok("rao-logs.zip".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z", TaskDto.class)).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
-        outputsToFtpService.exportOutputsForTask(taskDto);
-        Mockito.verify(ftpClientAdapter, Mockito.times(3)).upload(Mockito.anyString(), Mockito.eq(true), Mockito.any());
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:07Z"), TaskStatus.SUCCESS, createProcessFileList(4, 4), new ArrayList<>(), createProcessFileList(4, 4), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:07Z/file/AA0", "test1");
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:07Z/file/AA1", "test2");
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:07Z/file/AA2", "test3");
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:07Z/file/AA2", "test4");
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:07Z/file/LOGS", "rao-logs.zip");
+        Mockito.when(restTemplate.exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:07Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class))).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
+        outputsToFtpService.exportOutputsForTask(taskDto).block();
+        Mockito.verify(ftpClientAdapter, Mockito.times(3)).uploadDeferred(Mockito.anyString(), Mockito.eq(true), Mockito.any());
     }
 
     @Test
-    void checkTaskManagerCallNoUnZipFilesForSuccessTask() throws ClientAdapterException {
+    void checkTaskManagerCallNoUnZipFilesForSuccessTask() {
         ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", true);
         ReflectionTestUtils.setField(outputsToFtpService, "unzipFiles", null);
-        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:10Z"), TaskStatus.SUCCESS, createProcessFileList(3, 3), createProcessFileList(3, 3), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA0", byte[].class)).thenReturn(ResponseEntity.ok("test1".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA1", byte[].class)).thenReturn(ResponseEntity.ok("test2".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/AA2", byte[].class)).thenReturn(ResponseEntity.ok("test3".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z/file/LOGS", byte[].class)).thenReturn(ResponseEntity.ok("rao-logs.zip".getBytes(StandardCharsets.UTF_8)));
-        Mockito.when(restTemplate.getForEntity("http://localhost:8080/tasks/2022-04-27T10:10Z", TaskDto.class)).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
-        outputsToFtpService.exportOutputsForTask(taskDto);
-        Mockito.verify(ftpClientAdapter, Mockito.never()).upload(Mockito.anyString(), Mockito.eq(true), Mockito.any());
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:08Z"), TaskStatus.SUCCESS, createProcessFileList(3, 3), createProcessFileList(3, 3), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:08Z/file/AA0", "test1");
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:08Z/file/AA1", "test2");
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:08Z/file/AA2", "test3");
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:08Z/file/LOGS", "rao-logs.zip");
+        Mockito.when(restTemplate.exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:08Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class))).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
+        outputsToFtpService.exportOutputsForTask(taskDto).block();
+        Mockito.verify(ftpClientAdapter, Mockito.never()).uploadDeferred(Mockito.anyString(), Mockito.eq(true), Mockito.any());
+    }
+
+    @Test
+    void checkLogsExportedLastWhenConfigured() {
+        ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", true);
+        ReflectionTestUtils.setField(outputsToFtpService, "logsLast", true);
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:09Z"), TaskStatus.SUCCESS, createProcessFileList(3, 3), new ArrayList<>(), createProcessFileList(3, 3), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        List<String> downloadedUrls = Collections.synchronizedList(new ArrayList<>());
+        Mockito.when(restTemplate.execute(Mockito.anyString(), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.<ResponseExtractor<Object>>any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(downloadedUrls.add(invocation.getArgument(0))));
+        Mockito.when(restTemplate.exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:09Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class))).thenReturn(ResponseEntity.of(Optional.of(taskDto)));
+        outputsToFtpService.exportOutputsForTask(taskDto).block();
+        ReflectionTestUtils.setField(outputsToFtpService, "logsLast", false);
+        Assertions.assertEquals(4, downloadedUrls.size());
+        Assertions.assertEquals("http://localhost:8080/tasks/2022-04-27T10:09Z/file/LOGS", downloadedUrls.get(3));
+    }
+
+    @Test
+    void checkNoPollingWhenOutputsAlreadyValidated() {
+        ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", false);
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:12Z"), TaskStatus.SUCCESS, new ArrayList<>(), new ArrayList<>(), createProcessFileList(2, 2), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:12Z/outputs", "test");
+        outputsToFtpService.exportOutputsForTask(taskDto).block();
+        Mockito.verify(restTemplate, Mockito.never()).exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:12Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class));
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T10:12Z/outputs", Mockito.times(1));
+    }
+
+    @Test
+    void checkPollingUntilOutputsValidated() {
+        ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", false);
+        TaskDto pendingTaskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:13Z"), TaskStatus.SUCCESS, new ArrayList<>(), new ArrayList<>(), createProcessFileList(2, 1), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        TaskDto validatedTaskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:13Z"), TaskStatus.SUCCESS, new ArrayList<>(), new ArrayList<>(), createProcessFileList(2, 2), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:13Z/outputs", "test");
+        Mockito.when(restTemplate.exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:13Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class)))
+                .thenReturn(ResponseEntity.of(Optional.of(pendingTaskDto)))
+                .thenReturn(ResponseEntity.of(Optional.of(validatedTaskDto)));
+        outputsToFtpService.exportOutputsForTask(pendingTaskDto).block();
+        Mockito.verify(restTemplate, Mockito.times(2)).exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:13Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class));
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T10:13Z/outputs", Mockito.times(1));
+    }
+
+    @Test
+    void checkIdenticalOutputsNotUploadedAgain(@TempDir Path dedupDirectory) {
+        ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", false);
+        Object defaultDedupCache = ReflectionTestUtils.getField(outputsToFtpService, "uploadDedupCache");
+        ReflectionTestUtils.setField(outputsToFtpService, "uploadDedupCache", new UploadDedupCache(new DedupConfiguration(true, 10, dedupDirectory.resolve("dedup.txt")), new SimpleMeterRegistry()));
+        TaskDto successTaskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:14Z"), TaskStatus.SUCCESS, new ArrayList<>(), new ArrayList<>(), createProcessFileList(2, 2), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        TaskDto errorTaskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:14Z"), TaskStatus.ERROR, new ArrayList<>(), new ArrayList<>(), createProcessFileList(2, 2), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        try {
+            mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:14Z/outputs", "test");
+            outputsToFtpService.exportOutputsForTask(successTaskDto).block();
+            outputsToFtpService.exportOutputsForTask(errorTaskDto).block();
+            Mockito.verify(ftpClientAdapter, Mockito.times(1)).uploadSpooled(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any());
+            mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:14Z/outputs", "test updated");
+            outputsToFtpService.exportOutputsForTask(successTaskDto).block();
+            Mockito.verify(ftpClientAdapter, Mockito.times(2)).uploadSpooled(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any());
+        } finally {
+            ReflectionTestUtils.setField(outputsToFtpService, "uploadDedupCache", defaultDedupCache);
+        }
+    }
+
+    @Test
+    void checkIdenticalOutputsUploadedAgainOnlyToDestinationsWhichMissedThem(@TempDir Path dedupDirectory) {
+        ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", false);
+        Object defaultDedupCache = ReflectionTestUtils.getField(outputsToFtpService, "uploadDedupCache");
+        ReflectionTestUtils.setField(outputsToFtpService, "uploadDedupCache", new UploadDedupCache(new DedupConfiguration(true, 10, dedupDirectory.resolve("dedup.txt")), new SimpleMeterRegistry()));
+        ClientAdapter primary = Mockito.mock(ClientAdapter.class);
+        ClientAdapter backup = Mockito.mock(ClientAdapter.class);
+        Mockito.when(primary.uploadSpooled(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any())).thenReturn(Mono.empty());
+        Mockito.when(backup.uploadSpooled(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any()))
+                .thenReturn(Mono.error(new ClientAdapterException("Connection refused")), Mono.empty());
+        Map<String, ClientAdapter> destinations = new LinkedHashMap<>();
+        destinations.put("primary", primary);
+        destinations.put("backup", backup);
+        Mockito.when(ftpClientAdapter.getDestinations()).thenReturn(destinations);
+        TaskDto successTaskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:17Z"), TaskStatus.SUCCESS, new ArrayList<>(), new ArrayList<>(), createProcessFileList(2, 2), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        TaskDto errorTaskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:17Z"), TaskStatus.ERROR, new ArrayList<>(), new ArrayList<>(), createProcessFileList(2, 2), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        try {
+            mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:17Z/outputs", "test");
+            outputsToFtpService.exportOutputsForTask(successTaskDto).block();
+            outputsToFtpService.exportOutputsForTask(errorTaskDto).block();
+            Mockito.verify(primary, Mockito.times(1)).uploadSpooled(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any());
+            Mockito.verify(backup, Mockito.times(2)).uploadSpooled(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any());
+        } finally {
+            ReflectionTestUtils.setField(outputsToFtpService, "uploadDedupCache", defaultDedupCache);
+        }
+    }
+
+    @Test
+    void checkIdenticalRedeliveryNotExportedAgain() {
+        ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", false);
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:15Z"), TaskStatus.SUCCESS, new ArrayList<>(), new ArrayList<>(), createProcessFileList(2, 2), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:15Z/outputs", "test");
+        outputsToFtpService.exportOutputsForTask(taskDto).block();
+        outputsToFtpService.exportOutputsForTask(taskDto).block();
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T10:15Z/outputs", Mockito.times(1));
+    }
+
+    @Test
+    void checkWaitingStoppedWhenNewerUpdateReceived() throws Exception {
+        ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", false);
+        TaskDto pendingTaskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:16Z"), TaskStatus.ERROR, new ArrayList<>(), new ArrayList<>(), createProcessFileList(2, 1), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        TaskDto validatedTaskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:16Z"), TaskStatus.SUCCESS, new ArrayList<>(), new ArrayList<>(), createProcessFileList(2, 2), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T10:16Z/outputs", "test");
+        Mockito.when(restTemplate.exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:16Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class))).thenReturn(ResponseEntity.of(Optional.of(pendingTaskDto)));
+        CompletableFuture<Void> pendingExport = outputsToFtpService.exportOutputsForTask(pendingTaskDto).toFuture();
+        outputsToFtpService.exportOutputsForTask(validatedTaskDto).block();
+        pendingExport.get(10, TimeUnit.SECONDS);
+        Mockito.verify(restTemplate, Mockito.atMost(1)).exchange(Mockito.eq("http://localhost:8080/tasks/2022-04-27T10:16Z"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.eq(TaskDto.class));
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T10:16Z/outputs", Mockito.times(1));
+    }
+
+    @Test
+    void checkExportStagesMetered() {
+        ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", true);
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T12:00Z"), TaskStatus.SUCCESS, createProcessFileList(1, 1), new ArrayList<>(), createProcessFileList(1, 1), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T12:00Z/file/AA0", "metered content");
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T12:00Z/file/LOGS", "rao-logs.zip");
+        Mockito.doAnswer(invocation -> {
+            invocation.<InputStream>getArgument(2).readAllBytes();
+            return Mono.empty();
+        }).when(ftpClientAdapter).uploadDeferred(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any());
+        long readinessWaits = timerCount("gridcapa.export.readiness.wait", "outcome", "ready");
+        long downloads = timerCount("gridcapa.export.download", "file.type", "/AA0");
+        long uploads = timerCount("gridcapa.export.upload", "file.type", "/AA0", "outcome", "success");
+        outputsToFtpService.exportOutputsForTask(taskDto).block();
+        Assertions.assertEquals(readinessWaits + 1, timerCount("gridcapa.export.readiness.wait", "outcome", "ready"));
+        Assertions.assertEquals(downloads + 1, timerCount("gridcapa.export.download", "file.type", "/AA0"));
+        Assertions.assertEquals(uploads + 1, timerCount("gridcapa.export.upload", "file.type", "/AA0", "outcome", "success"));
+        Assertions.assertTrue(meterRegistry.get("gridcapa.export.download.bytes").tag("file.type", "/AA0").summary().max() >= "metered content".length());
+        Assertions.assertTrue(meterRegistry.get("gridcapa.export.end.to.end").tag("status", "SUCCESS").timer().count() > 0);
+        Assertions.assertEquals(0, meterRegistry.get("gridcapa.export.in.flight").gauge().value());
+    }
+
+    @Test
+    void checkOutputFilesPackedInSingleUpload() throws IOException {
+        ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", true);
+        ReflectionTestUtils.setField(outputsToFtpService, "packOutputFiles", true);
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T13:00Z"), TaskStatus.SUCCESS, createProcessFileList(2, 2), new ArrayList<>(), createProcessFileList(2, 2), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        mockNamedFileDownload("http://localhost:8080/tasks/2022-04-27T13:00Z/file/AA0", "cne.xml", "test1");
+        mockNamedFileDownload("http://localhost:8080/tasks/2022-04-27T13:00Z/file/AA1", "cne.xml", "test2");
+        mockNamedFileDownload("http://localhost:8080/tasks/2022-04-27T13:00Z/file/LOGS", "rao-logs.zip", "rao-logs");
+        ByteArrayOutputStream uploadedArchive = new ByteArrayOutputStream();
+        Mockito.doAnswer(invocation -> {
+            invocation.<InputStream>getArgument(2).transferTo(uploadedArchive);
+            return Mono.empty();
+        }).when(ftpClientAdapter).uploadDeferred(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any());
+        try {
+            outputsToFtpService.exportOutputsForTask(taskDto).block();
+        } finally {
+            ReflectionTestUtils.setField(outputsToFtpService, "packOutputFiles", false);
+        }
+        Mockito.verify(ftpClientAdapter, Mockito.times(1)).uploadDeferred(Mockito.eq("outputs_20220427T1300Z.zip"), Mockito.eq(false), Mockito.any());
+        Map<String, String> entries = readZipEntries(uploadedArchive.toByteArray());
+        // a file named like a previous one is stored under its type
+        Assertions.assertEquals(List.of("cne.xml", "AA1/cne.xml", "rao-logs.zip", "manifest.json"), List.copyOf(entries.keySet()));
+        Assertions.assertEquals("test1", entries.get("cne.xml"));
+        Assertions.assertEquals("test2", entries.get("AA1/cne.xml"));
+        Assertions.assertEquals("rao-logs", entries.get("rao-logs.zip"));
+        Assertions.assertTrue(entries.get("manifest.json").contains("\"fileName\":\"AA1/cne.xml\",\"size\":5"));
+    }
+
+    @Test
+    void checkPackedUploadFailsWhenDownloadFailsMidway() {
+        ReflectionTestUtils.setField(outputsToFtpService, "seperateOutputFiles", true);
+        ReflectionTestUtils.setField(outputsToFtpService, "packOutputFiles", true);
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T13:01Z"), TaskStatus.SUCCESS, createProcessFileList(1, 1), new ArrayList<>(), createProcessFileList(1, 1), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        InputStream brokenBody = new SequenceInputStream(new ByteArrayInputStream(new byte[100]), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+        Mockito.when(restTemplate.execute(Mockito.eq("http://localhost:8080/tasks/2022-04-27T13:01Z/file/AA0"), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.<ResponseExtractor<Object>>any()))
+                .thenAnswer(invocation -> invocation.<ResponseExtractor<Object>>getArgument(3).extractData(new MockClientHttpResponse(brokenBody, HttpStatus.OK)));
+        mockFileDownload("http://localhost:8080/tasks/2022-04-27T13:01Z/file/LOGS", "rao-logs");
+        List<Exception> uploadFailures = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            try {
+                invocation.<InputStream>getArgument(2).readAllBytes();
+                return Mono.empty();
+            } catch (IOException e) {
+                uploadFailures.add(e);
+                return Mono.error(new ClientAdapterException(e));
+            }
+        }).when(ftpClientAdapter).uploadDeferred(Mockito.anyString(), Mockito.anyBoolean(), Mockito.any());
+        try {
+            outputsToFtpService.exportOutputsForTask(taskDto).block();
+        } finally {
+            ReflectionTestUtils.setField(outputsToFtpService, "packOutputFiles", false);
+        }
+        Assertions.assertEquals(1, uploadFailures.size());
+        verifyFileDownload("http://localhost:8080/tasks/2022-04-27T13:01Z/file/LOGS", Mockito.never());
+    }
+
+    private static Map<String, String> readZipEntries(byte[] archive) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            ZipEntry zipEntry = zipInputStream.getNextEntry();
+            while (zipEntry != null) {
+                entries.put(zipEntry.getName(), new String(zipInputStream.readAllBytes(), StandardCharsets.UTF_8));
+                zipEntry = zipInputStream.getNextEntry();
+            }
+        }
+        return entries;
+    }
+
+    private long timerCount(String name, String... tags) {
+        Timer timer = meterRegistry.find(name).tags(tags).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private void mockFileDownload(String url, String content) {
+        Mockito.when(restTemplate.execute(Mockito.eq(url), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.<ResponseExtractor<Object>>any()))
+                .thenAnswer(invocation -> invocation.<ResponseExtractor<Object>>getArgument(3).extractData(new MockClientHttpResponse(content.getBytes(StandardCharsets.UTF_8), HttpStatus.OK)));
+    }
+
+    private void mockNamedFileDownload(String url, String fileName, String content) {
+        Mockito.when(restTemplate.execute(Mockito.eq(url), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.<ResponseExtractor<Object>>any()))
+                .thenAnswer(invocation -> {
+                    MockClientHttpResponse response = new MockClientHttpResponse(content.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+                    response.getHeaders().add("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+                    return invocation.<ResponseExtractor<Object>>getArgument(3).extractData(response);
+                });
+    }
+
+    private void verifyFileDownload(String url, VerificationMode mode) {
+        Mockito.verify(restTemplate, mode).execute(Mockito.eq(url), Mockito.eq(HttpMethod.GET), Mockito.any(), Mockito.<ResponseExtractor<Object>>any());
     }
 
     private List<ProcessFileDto> createProcessFileList(int total, int nbValidated) {
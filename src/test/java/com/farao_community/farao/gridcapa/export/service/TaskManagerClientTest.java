@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.service;
+
+import com.farao_community.farao.gridcapa.export.config.BeansConfiguration;
+import com.farao_community.farao.gridcapa.export.config_properties.TaskManagerHttpProperties;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @author agent {@literal <agent at local>}
+ */
+class TaskManagerClientTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private HttpServer taskManager;
+    private TaskManagerClient taskManagerClient;
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private final AtomicBoolean gzipRequested = new AtomicBoolean();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void startTaskManager() throws IOException {
+        TaskDto taskDto = new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:10Z"), TaskStatus.SUCCESS, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        byte[] taskJson = Jackson2ObjectMapperBuilder.json().build().writeValueAsBytes(taskDto);
+        taskManager = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        taskManager.createContext("/tasks/2022-04-27T10:10Z", exchange -> {
+            gzipRequested.set("gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding")));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            respond(exchange, gzip(taskJson));
+        });
+        taskManager.createContext("/tasks/2022-04-27T10:10Z/file/CGM", exchange -> respond(exchange, "file content".getBytes(StandardCharsets.UTF_8)));
+        taskManager.start();
+        BeansConfiguration beansConfiguration = new BeansConfiguration();
+        TaskManagerHttpProperties taskManagerHttpProperties = new TaskManagerHttpProperties(HttpClient.Version.HTTP_1_1, 4, 2, Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofMinutes(1), Duration.ofMinutes(5), DataSize.ofKilobytes(64));
+        taskManagerClient = new TaskManagerClient(beansConfiguration.getRestTemplate(new RestTemplateBuilder(), beansConfiguration.taskManagerRequestFactory(taskManagerHttpProperties, meterRegistry)), 10);
+    }
+
+    @AfterEach
+    void stopTaskManager() {
+        taskManager.stop(0);
+    }
+
+    @Test
+    void checkUnchangedTaskServedFromNotModifiedResponse() {
+        String url = baseUrl() + "/tasks/2022-04-27T10:10Z";
+        TaskDto fetchedTask = taskManagerClient.fetchTask(url);
+        TaskDto refetchedTask = taskManagerClient.fetchTask(url);
+        Assertions.assertTrue(gzipRequested.get());
+        Assertions.assertEquals(TaskStatus.SUCCESS, fetchedTask.getStatus());
+        Assertions.assertSame(fetchedTask, refetchedTask);
+        Assertions.assertEquals(1, fullResponses.get());
+        Assertions.assertEquals(1, notModifiedResponses.get());
+        // both requests were sent over the same kept alive connection, now back in the pool
+        Assertions.assertEquals(1, meterRegistry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "available").gauge().value());
+        Assertions.assertEquals(0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "leased").gauge().value());
+    }
+
+    @Test
+    void checkUnchangedFileHandledAgainOnlyAfterFailure() {
+        String url = baseUrl() + "/tasks/2022-04-27T10:10Z/file/CGM";
+        List<String> handledContents = new ArrayList<>();
+        taskManagerClient.downloadFile(url, response -> {
+            handledContents.add(new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+            return CompletableFuture.completedFuture(false);
+        }).join();
+        CompletableFuture<Boolean> upload = new CompletableFuture<>();
+        CompletableFuture<Boolean> handled = taskManagerClient.downloadFile(url, response -> {
+            handledContents.add(new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+            return upload;
+        });
+        Assertions.assertFalse(handled.isDone());
+        // the file is only known as handled once its deferred upload is over
+        upload.complete(true);
+        Assertions.assertTrue(handled.join());
+        taskManagerClient.downloadFile(url, response -> CompletableFuture.completedFuture(handledContents.add("unexpected"))).join();
+        Assertions.assertEquals(List.of("file content", "file content"), handledContents);
+        Assertions.assertEquals(2, fullResponses.get());
+        Assertions.assertEquals(1, notModifiedResponses.get());
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + taskManager.getAddress().getPort();
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("ETag", ETAG);
+        if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModifiedResponses.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+        } else {
+            fullResponses.incrementAndGet();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(content);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * @author agent {@literal <agent at local>}
+ */
+class TaskUpdateConflatorTest {
+
+    private final TaskUpdateConflator taskUpdateConflator = new TaskUpdateConflator(16);
+
+    @Test
+    void checkRunningUpdateDoesNotSupersedeSuccess() {
+        TaskUpdateConflator.TaskUpdate successUpdate = taskUpdateConflator.register(taskDto(TaskStatus.SUCCESS));
+        TaskUpdateConflator.TaskUpdate runningUpdate = taskUpdateConflator.register(taskDto(TaskStatus.RUNNING));
+
+        Assertions.assertFalse(taskUpdateConflator.isSuperseded(successUpdate));
+        taskUpdateConflator.complete(runningUpdate);
+        Assertions.assertFalse(taskUpdateConflator.isSuperseded(successUpdate));
+    }
+
+    @Test
+    void checkFinishedUpdateSupersedesPreviousOne() {
+        TaskUpdateConflator.TaskUpdate successUpdate = taskUpdateConflator.register(taskDto(TaskStatus.SUCCESS));
+        TaskUpdateConflator.TaskUpdate errorUpdate = taskUpdateConflator.register(taskDto(TaskStatus.ERROR));
+
+        Assertions.assertTrue(taskUpdateConflator.isSuperseded(successUpdate));
+        Assertions.assertFalse(taskUpdateConflator.isSuperseded(errorUpdate));
+    }
+
+    private static TaskDto taskDto(TaskStatus status) {
+        return new TaskDto(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"), OffsetDateTime.parse("2022-04-27T10:10Z"), status,
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.export.service;
+
+import com.farao_community.farao.gridcapa.export.config.DedupConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author agent {@literal <agent at local>}
+ */
+class UploadDedupCacheTest {
+
+    @TempDir
+    Path dedupDirectory;
+
+    @Test
+    void checkDigestsSurviveRestart() {
+        DedupConfiguration dedupConfiguration = new DedupConfiguration(true, 10, dedupDirectory.resolve("dedup.txt"));
+        UploadDedupCache uploadDedupCache = new UploadDedupCache(dedupConfiguration, new SimpleMeterRegistry());
+        uploadDedupCache.load();
+        uploadDedupCache.record("2022-04-27T10:10Z|CGM|ftp://user@localhost:21/outputs", "digest");
+
+        UploadDedupCache reloadedDedupCache = new UploadDedupCache(dedupConfiguration, new SimpleMeterRegistry());
+        reloadedDedupCache.load();
+        Assertions.assertTrue(reloadedDedupCache.isUnchanged("2022-04-27T10:10Z|CGM|ftp://user@localhost:21/outputs", "digest"));
+        Assertions.assertFalse(reloadedDedupCache.isUnchanged("2022-04-27T10:10Z|CGM|ftp://user@localhost:21/outputs", "other digest"));
+    }
+
+    @Test
+    void checkDigestFileCompacted() throws IOException {
+        Path dedupFile = dedupDirectory.resolve("dedup.txt");
+        DedupConfiguration dedupConfiguration = new DedupConfiguration(true, 2, dedupFile);
+        UploadDedupCache uploadDedupCache = new UploadDedupCache(dedupConfiguration, new SimpleMeterRegistry());
+        for (int update = 0; update < 10; update++) {
+            uploadDedupCache.record("a", "digest a" + update);
+            Assertions.assertTrue(Files.readAllLines(dedupFile).size() <= 4);
+        }
+
+        UploadDedupCache reloadedDedupCache = new UploadDedupCache(dedupConfiguration, new SimpleMeterRegistry());
+        reloadedDedupCache.load();
+        Assertions.assertEquals(1, reloadedDedupCache.size());
+        Assertions.assertTrue(reloadedDedupCache.isUnchanged("a", "digest a9"));
+    }
+
+    @Test
+    void checkEnabledDedupRequiresFile() {
+        IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class, () -> new DedupConfiguration(true, 10, null));
+        Assertions.assertTrue(exception.getMessage().contains("export.dedup.file"));
+        Assertions.assertDoesNotThrow(() -> new DedupConfiguration(false, 10, null));
+    }
+
+    @Test
+    void checkLeastRecentlyUsedDigestEvicted() {
+        UploadDedupCache uploadDedupCache = new UploadDedupCache(new DedupConfiguration(true, 2, dedupDirectory.resolve("dedup.txt")), new SimpleMeterRegistry());
+        uploadDedupCache.record("a", "digest a");
+        uploadDedupCache.record("b", "digest b");
+        Assertions.assertTrue(uploadDedupCache.isUnchanged("a", "digest a"));
+        uploadDedupCache.record("c", "digest c");
+        Assertions.assertEquals(2, uploadDedupCache.size());
+        Assertions.assertTrue(uploadDedupCache.isUnchanged("a", "digest a"));
+        Assertions.assertFalse(uploadDedupCache.isUnchanged("b", "digest b"));
+        Assertions.assertTrue(uploadDedupCache.isUnchanged("c", "digest c"));
+    }
+}